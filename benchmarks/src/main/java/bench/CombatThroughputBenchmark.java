@@ -0,0 +1,71 @@
+package bench;
+
+import model.Character;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.CombatEngine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CombatEngine 循环赛吞吐：16 名角色两两对战，分数为每秒对局数，按线程数扫描。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CombatThroughputBenchmark {
+
+    private static final int ROSTER = 16;
+    private static final int MATCHES_PER_PAIR = 256;
+    private static final int MATCHES = ROSTER * (ROSTER - 1) / 2 * MATCHES_PER_PAIR;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path dir;
+    private ForkJoinPool pool;
+    private CombatEngine.Rules rules;
+    private List<Character> roster;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("combat-bench");
+        // 原值下默认配置一两回合即结束，校准后才有代表性的回合数
+        rules = CombatEngine.Rules.of(Fixtures.defaultConfig()).calibrated();
+        roster = Fixtures.roster(Fixtures.writePortraits(dir), ROSTER);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MATCHES)
+    public CombatEngine.Tournament roundRobin() {
+        return CombatEngine.roundRobin(rules, roster, MATCHES_PER_PAIR, seed++, pool);
+    }
+}
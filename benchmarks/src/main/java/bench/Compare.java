@@ -0,0 +1,106 @@
+package bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 对比两次 {@link Suite} 的 JSON 结果，逐项列出得分与每次操作分配字节（gc.alloc.rate.norm）的变化。
+ * 用法：java -cp target/benchmarks.jar bench.Compare 基线.json 本次.json [时间阈值% 默认 10] [分配阈值% 默认 5]
+ * 任一项变慢或分配增加超过阈值时以退出码 1 结束，便于在 CI 中直接失败。
+ */
+public final class Compare {
+
+    private static final String ALLOC = "·gc.alloc.rate.norm";
+    /** 分配增量低于此字节数时视为噪声 */
+    private static final double ALLOC_NOISE_BYTES = 16;
+
+    private record Score(String mode, String unit, double score, double error, double allocBytes) {
+        /** 吞吐类越大越好，其余（时间）越小越好 */
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    private Compare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: Compare <baseline.json> <current.json> [time-threshold%] [alloc-threshold%]");
+            System.exit(2);
+        }
+        Map<String, Score> baseline = read(Paths.get(args[0]));
+        Map<String, Score> current = read(Paths.get(args[1]));
+        double timeThreshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        double allocThreshold = args.length > 3 ? Double.parseDouble(args[3]) : 5;
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %8s %12s %12s %8s%n",
+                "benchmark", "baseline", "current", "Δ%", "B/op base", "B/op now", "Δ%");
+        for (Map.Entry<String, Score> e : current.entrySet()) {
+            Score now = e.getValue();
+            Score base = baseline.get(e.getKey());
+            if (base == null) {
+                System.out.printf("%-70s %14s %14.3f %8s  (new)%n", e.getKey(), "-", now.score, "");
+                continue;
+            }
+            // 正值总表示“变差”
+            double timeDelta = percent(base.score, now.score) * (now.higherIsBetter() ? -1 : 1);
+            double allocDelta = percent(base.allocBytes, now.allocBytes);
+            boolean slower = timeDelta > timeThreshold
+                    && Math.abs(now.score - base.score) > base.error + now.error;
+            boolean allocates = allocDelta > allocThreshold && now.allocBytes - base.allocBytes > ALLOC_NOISE_BYTES;
+            if (slower || allocates) regressions++;
+            System.out.printf("%-70s %14.3f %14.3f %+7.1f%% %12.1f %12.1f %+7.1f%%%s%n",
+                    e.getKey(), base.score, now.score, timeDelta, base.allocBytes, now.allocBytes, allocDelta,
+                    slower && allocates ? "  << SLOWER, ALLOCATES MORE"
+                            : slower ? "  << SLOWER" : allocates ? "  << ALLOCATES MORE" : "");
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) System.out.printf("%-70s (missing from current run)%n", key);
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " regression(s) beyond threshold");
+            System.exit(1);
+        }
+        System.out.println("no regressions");
+    }
+
+    /** 键：基准名 + 参数 + 线程数 */
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText().replaceFirst("^bench\\.", ""));
+            JsonNode params = run.path("params");
+            for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> p = it.next();
+                key.append(key.indexOf("{") < 0 ? "{" : ",").append(p.getKey()).append('=').append(p.getValue().asText());
+            }
+            if (params.size() > 0) key.append('}');
+            key.append(" t=").append(run.path("threads").asInt());
+
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode alloc = run.path("secondaryMetrics").path(ALLOC);
+            scores.put(key.toString(), new Score(run.path("mode").asText(), primary.path("scoreUnit").asText(),
+                    primary.path("score").asDouble(), safe(primary.path("scoreError").asDouble()),
+                    alloc.isMissingNode() ? 0 : alloc.path("score").asDouble()));
+        }
+        return scores;
+    }
+
+    private static double percent(double base, double now) {
+        if (base == 0) return now == 0 ? 0 : 100;
+        return (now - base) / base * 100;
+    }
+
+    private static double safe(double v) {
+        return Double.isNaN(v) ? 0 : v;
+    }
+}
@@ -0,0 +1,83 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ConfigFindStrategy;
+import util.ConfigFinder;
+import util.ConfigSearcher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConfigFinder.locate 命中位置索引（只做一次 stat 校验）与每次都重新搜索的对比，
+ * 目标文件位于 depth 层深的目录链底部。位置索引写在工作目录的 .cache 下。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigLocateBenchmark {
+
+    private static final String TARGET = "GameSetUp.json";
+
+    @Param({"2", "6"})
+    public int depth;
+
+    private Path root;
+    private ConfigFindStrategy strategy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("config-locate-bench");
+        Files.writeString(Fixtures.directoryChain(root, depth, 8).resolve(TARGET), "{}");
+        Path searchRoot = root;
+        strategy = new ConfigFindStrategy() {
+            @Override
+            public Path preferredPath() {
+                return searchRoot.resolve("config").resolve(TARGET);   // 不存在，迫使走搜索
+            }
+
+            @Override
+            public Path searchRoot() {
+                return searchRoot;
+            }
+
+            @Override
+            public String defaultContent() {
+                return "{}";
+            }
+        };
+        ConfigFinder.locate(strategy);   // 预热位置索引
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Fixtures.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public Path indexedLocate() throws IOException {
+        return ConfigFinder.locate(strategy);
+    }
+
+    @Benchmark
+    public Path searchEveryTime() {
+        return ConfigSearcher.search(strategy);
+    }
+}
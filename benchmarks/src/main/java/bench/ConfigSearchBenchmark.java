@@ -0,0 +1,117 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.ConfigSearcher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * ConfigSearcher 与旧版 Files.list 嵌套递归的对比。
+ * 合成目录树：每个目录 FILES_PER_DIR 个文件 + DIRS_PER_DIR 个子目录，
+ * 直到总条目数达到 entries；目标文件放在 game/d3（shallow）
+ * 或最后创建、最深的目录（deep）里，另带一个同等规模的
+ * node_modules 目录供忽略规则跳过。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConfigSearchBenchmark {
+
+    private static final String TARGET = "GameSetUp.json";
+    private static final int FILES_PER_DIR = 10;
+    private static final int DIRS_PER_DIR = 4;
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    @Param({"shallow", "deep"})
+    public String placement;
+
+    private Path root;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        root = Files.createTempDirectory("config-search-bench");
+        Path deepest = populate(root.resolve("game"), entries / 2);
+        Path target = "deep".equals(placement) ? deepest : root.resolve("game/d3");
+        Files.writeString(target.resolve(TARGET), "{}");
+        populate(root.resolve("node_modules"), entries / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        try (Stream<Path> s = Files.walk(root)) {
+            s.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Path parallelBfs() {
+        return ConfigSearcher.search(root, TARGET, 64, List.of(".*", "node_modules"));
+    }
+
+    @Benchmark
+    public Path legacyNestedList() throws IOException {
+        return legacyFindRecursively(root, TARGET);
+    }
+
+    /** 按层创建目录树，返回最后创建的目录 */
+    private static Path populate(Path top, int budget) throws IOException {
+        Files.createDirectories(top);
+        Deque<Path> queue = new ArrayDeque<>();
+        queue.add(top);
+        Path last = top;
+        int created = 0;
+        while (created < budget && !queue.isEmpty()) {
+            Path dir = queue.poll();
+            for (int i = 0; i < FILES_PER_DIR && created < budget; i++, created++) {
+                Files.createFile(dir.resolve("f" + i + ".json"));
+            }
+            for (int i = 0; i < DIRS_PER_DIR && created < budget; i++, created++) {
+                last = Files.createDirectory(dir.resolve("d" + i));
+                queue.add(last);
+            }
+        }
+        return last;
+    }
+
+    /** ConfigFinder 改造前的实现，原样保留作基线 */
+    private static Path legacyFindRecursively(Path dir, String name) throws IOException {
+        if (!Files.isDirectory(dir)) return null;
+        try (var s = Files.list(dir)) {
+            return s.filter(path -> {
+                if (Files.isDirectory(path)) {
+                    try {
+                        Path r = legacyFindRecursively(path, name);
+                        return r != null;
+                    } catch (IOException ignore) {
+                    }
+                }
+                return path.getFileName().toString().equals(name);
+            }).findFirst().orElse(null);
+        }
+    }
+}
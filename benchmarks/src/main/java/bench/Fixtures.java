@@ -0,0 +1,138 @@
+package bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.Character;
+import util.GameConfig;
+import util.GameSetupFindStrategy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 各基准共用的夹具：默认配置、portrait 配置、合成角色（内存中或写成 JSON 目录）与目录树。
+ */
+final class Fixtures {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Fixtures() {
+    }
+
+    /** 默认 GameSetUp 内容绑定出的配置 */
+    static GameConfig defaultConfig() {
+        try {
+            return MAPPER.readValue(new GameSetupFindStrategy().defaultContent(), GameConfig.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final String[] STATE_CODES = {"n", "l", "h", "d"};
+
+    /** 在 dir 下写一份覆盖全部状态与 left/right 两个位置的 portrait 配置（连同图片文件） */
+    static Path writePortraits(Path dir) throws IOException {
+        return writePortraits(dir, List.of("left", "right"));
+    }
+
+    /** 同上，位置为 p0 .. p{positions-1}；映射共 4 × positions 项 */
+    static Path writePortraits(Path dir, int positions) throws IOException {
+        List<String> names = new ArrayList<>(positions);
+        for (int i = 0; i < positions; i++) {
+            names.add("p" + i);
+        }
+        return writePortraits(dir, names);
+    }
+
+    private static Path writePortraits(Path dir, List<String> positions) throws IOException {
+        Map<String, String> map = new LinkedHashMap<>();
+        Path img = Files.createDirectories(dir.resolve("img"));
+        for (String position : positions) {
+            for (String state : STATE_CODES) {
+                String name = state + "_" + position + ".png";
+                map.put(state + "_" + position, "img/" + name);
+                Files.write(img.resolve(name), new byte[64]);
+            }
+        }
+        Path config = dir.resolve("portraits.json");
+        MAPPER.writeValue(config.toFile(), map);
+        return config;
+    }
+
+    /**
+     * 在 dir 下写 size 个能通过默认配置校验的角色 JSON（系数在 [0.5, 1.5] 上错开，总和不超过 3），
+     * portraitPath 指向 portraits；
+     * 返回 dir
+     */
+    static Path writeRoster(Path dir, Path portraits, int size) throws IOException {
+        Files.createDirectories(dir);
+        String portraitPath = dir.relativize(portraits).toString().replace('\\', '/');
+        for (int i = 0; i < size; i++) {
+            double hp = 0.5 + (i % 4) * 0.25, defense = 0.5 + (i / 4 % 4) * 0.25;
+            Map<String, Object> character = new LinkedHashMap<>();
+            character.put("id", "c" + i);
+            character.put("name", "c" + i);
+            character.put("desc", "d");
+            character.put("hpScalingFactor", hp);
+            character.put("defenseScalingFactor", defense);
+            character.put("attackScalingFactor", Math.min(1.5, Math.max(0.5, 3 - hp - defense)));
+            character.put("portraitPath", portraitPath);
+            character.put("position", i % 2 == 0 ? "left" : "right");
+            MAPPER.writeValue(dir.resolve(String.format("c%05d.json", i)).toFile(), character);
+        }
+        return dir;
+    }
+
+    /** 默认 GameSetUp 内容，charactersPath 改为 charactersDir 的绝对路径，写到 file */
+    static Path writeSetUp(Path file, Path charactersDir) throws IOException {
+        Map<String, Object> setup = MAPPER.readValue(new GameSetupFindStrategy().defaultContent(),
+                new TypeReference<LinkedHashMap<String, Object>>() {});
+        setup.put("charactersPath", charactersDir.toAbsolutePath().toString());
+        MAPPER.writeValue(file.toFile(), setup);
+        return file;
+    }
+
+    /** size 名角色，缩放系数在 [0.5, 1.25] 上错开，总和不超过 3 */
+    static List<Character> roster(Path portraits, int size) {
+        List<Character> roster = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double hp = 0.5 + (i % 4) * 0.25, defense = 0.5 + (i / 4 % 4) * 0.25;
+            roster.add(new Character("c" + i, "c" + i, "", hp, defense, Math.max(0.5, 3 - hp - defense),
+                    portraits, i % 2 == 0 ? "left" : "right"));
+        }
+        return roster;
+    }
+
+    /**
+     * 建一条 depth 层的目录链，每层另有 fanout 个兄弟目录（各含一个无关文件）；
+     * 返回最深的目录
+     */
+    static Path directoryChain(Path root, int depth, int fanout) throws IOException {
+        Path dir = root;
+        for (int d = 0; d < depth; d++) {
+            for (int f = 0; f < fanout; f++) {
+                Path sibling = Files.createDirectories(dir.resolve("s" + d + "_" + f));
+                Files.writeString(sibling.resolve("readme.txt"), "x");
+            }
+            dir = Files.createDirectories(dir.resolve("d" + d));
+        }
+        return dir;
+    }
+
+    static void deleteRecursively(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) return;
+        try (Stream<Path> s = Files.walk(root)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.GameConfig;
+import util.GameRules;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 典型的战斗计算（伤害钳制到 damageRegion、HP 比例对照里程碑）分别从
+ * GameConfig 的 List 字段、GameRules 实例字段、static final GameRules 常量读取边界的对比。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameRulesBenchmark {
+
+    private static final int N = 1024;
+
+    /** static final 持有的实例，JIT 可把整条读取链常量折叠 */
+    private static final GameRules STATIC_RULES = GameRules.of(Fixtures.defaultConfig());
+
+    private GameConfig config;
+    private GameRules rules;
+    private double[] damage;
+    private double[] hpRatio;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = Fixtures.defaultConfig();
+        rules = GameRules.of(config);
+        damage = new double[N];
+        hpRatio = new double[N];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < N; i++) {
+            damage[i] = random.nextDouble(-500, 2500);
+            hpRatio[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public double boxedConfig() {
+        GameConfig c = config;
+        double sum = 0;
+        for (int i = 0; i < N; i++) {
+            List<Integer> region = c.damageRegion();
+            double d = Math.min(Math.max(damage[i], region.get(0)), region.get(1));
+            List<Double> milestones = c.portraitsTransferMilestone();
+            int state = 0;
+            while (state < milestones.size() && hpRatio[i] <= milestones.get(state)) state++;
+            sum += d * (state + 1);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public double primitiveView() {
+        return compute(rules);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public double staticView() {
+        return compute(STATIC_RULES);
+    }
+
+    private double compute(GameRules r) {
+        double sum = 0;
+        for (int i = 0; i < N; i++) {
+            double d = Math.min(Math.max(damage[i], r.damageMin()), r.damageMax());
+            int state = 0;
+            while (state < r.milestoneCount() && hpRatio[i] <= r.milestone(state)) state++;
+            sum += d * (state + 1);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,74 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.GameConfig;
+import util.GameSetUpStreamValidator;
+import util.GameSetUpValidationStrategy;
+import util.GameSetupFindStrategy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameSetUp.json：树模型 schema 校验（readTree → 逐字段 Checker）+ GameConfig.load
+ * 与流式单趟校验并直接绑定的对比。
+ * valid 为默认配置；invalidEarly 首个键即违规；invalidLate 最后一个键违规。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSetUpValidationBenchmark {
+
+    @Param({"valid", "invalidEarly", "invalidLate"})
+    public String input;
+
+    private final GameSetUpValidationStrategy strategy = new GameSetUpValidationStrategy();
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String json = new GameSetupFindStrategy().defaultContent();
+        switch (input) {
+            case "invalidEarly" -> json = json.replace("\"scalingFactorRegion\": [0.5,1.5]",
+                    "\"scalingFactorRegion\": [1.5,0.5]");
+            case "invalidLate" -> json = json.replace("\"skillsPath\": \"config/skills\"",
+                    "\"skillsPath\": \"\"");
+            default -> {
+            }
+        }
+        file = Files.createTempFile("GameSetUp", ".json");
+        Files.writeString(file, json);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public GameConfig treeThenBind() throws IOException {
+        return strategy.validate(file) ? GameConfig.load(file) : null;
+    }
+
+    @Benchmark
+    public GameConfig streaming() {
+        return GameSetUpStreamValidator.validate(file);
+    }
+}
@@ -0,0 +1,68 @@
+package bench;
+
+import model.Character;
+import model.CharacterState;
+import model.PlayerState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一场对局两名参战者的准备开销：每场新建 Character（含 PortraitLoader）
+ * 与共享模板、每场只建 CharacterState 的对比。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchSetupBenchmark {
+
+    private Path dir;
+    private Path portraits;
+    private Character left, right;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("match-bench");
+        portraits = Fixtures.writePortraits(dir);
+        left = new Character("l", "l", "", 1, 1, 1, portraits, "left");
+        right = new Character("r", "r", "", 1, 1, 1, portraits, "right");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public Path characterPerMatch() {
+        Character a = new Character("l", "l", "", 1, 1, 1, portraits, "left");
+        Character b = new Character("r", "r", "", 1, 1, 1, portraits, "right");
+        a.portrait(PlayerState.NORMAL);
+        return b.portrait(PlayerState.NORMAL);
+    }
+
+    @Benchmark
+    public Path sharedTemplate() {
+        CharacterState a = left.newState();
+        CharacterState b = right.newState();
+        a.updatePortrait(PlayerState.NORMAL);
+        return b.updatePortrait(PlayerState.NORMAL);
+    }
+}
@@ -0,0 +1,67 @@
+package bench;
+
+import model.PlayerState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.PortraitLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PortraitLoader 字符串键查找（拼接 + HashMap + resolve/normalize）
+ * 与 (PlayerState × positionId) 预计算表查找的对比。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortraitLookupBenchmark {
+
+    private static final PlayerState[] STATES = {
+            PlayerState.NORMAL, PlayerState.LIGHT_DAMAGED, PlayerState.HEAVY_DAMAGED, PlayerState.DESTROYED
+    };
+
+    private Path dir;
+    private PortraitLoader loader;
+    private int positionId;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("portrait-bench");
+        loader = new PortraitLoader(Fixtures.writePortraits(dir));
+        positionId = PortraitLoader.positionId("left");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public Path stringKeyed() {
+        PlayerState state = STATES[cursor++ & 3];
+        return loader.getPortrait(state.getState(), "left");
+    }
+
+    @Benchmark
+    public Path precomputedTable() {
+        PlayerState state = STATES[cursor++ & 3];
+        return loader.getPortrait(state, positionId);
+    }
+}
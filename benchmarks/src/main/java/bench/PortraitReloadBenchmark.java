@@ -0,0 +1,71 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.PortraitLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * portrait 配置重载：reload 经 PortraitRegistry 重新解析一次并替换所有共享 loader 的配置，
+ * 耗时应只随配置大小（positions × 4 项）增长、与共享的 loader 数无关；
+ * openLoader 为注册表命中时新建 loader 的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortraitReloadBenchmark {
+
+    @Param({"2", "32", "256"})
+    public int positions;
+
+    @Param({"1", "16"})
+    public int loaders;
+
+    private Path dir;
+    private Path config;
+    private PortraitLoader[] shared;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("portrait-reload-bench");
+        config = Fixtures.writePortraits(dir, positions);
+        shared = new PortraitLoader[loaders];
+        for (int i = 0; i < loaders; i++) {
+            shared[i] = new PortraitLoader(config);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public int reload() {
+        shared[0].reload();
+        return shared[loaders - 1].generation();
+    }
+
+    @Benchmark
+    public PortraitLoader openLoader() {
+        return new PortraitLoader(config);
+    }
+}
@@ -0,0 +1,84 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import util.CharacterRoster;
+import util.GameConfig;
+import util.StartupSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 随配置规模（角色文件数）变化的启动路径：名册重建（逐文件校验）、从索引打开名册、
+ * 从启动快照恢复 GameConfig 与全部角色。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosterSizeBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int characters;
+
+    private Path dir;
+    private Path charactersDir;
+    private Path setupFile;
+    private Path indexFile;
+    private Path snapshotFile;
+    private GameConfig config;
+    private CharacterRoster roster;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("roster-bench");
+        Path portraits = Fixtures.writePortraits(Files.createDirectories(dir.resolve("portraits")));
+        charactersDir = Fixtures.writeRoster(dir.resolve("characters"), portraits, characters);
+        setupFile = Fixtures.writeSetUp(dir.resolve("GameSetUp.json"), charactersDir);
+        config = GameConfig.load(setupFile);
+        indexFile = dir.resolve("roster.idx");
+        snapshotFile = dir.resolve("startup.snap");
+        roster = CharacterRoster.open(config, charactersDir, indexFile);
+        if (roster.size() != characters) {
+            throw new IllegalStateException("fixture produced " + roster.size() + " of " + characters + " characters");
+        }
+        StartupSnapshot.load(setupFile, snapshotFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public int rosterRebuild() throws IOException {
+        roster.rebuild();
+        return roster.size();
+    }
+
+    @Benchmark
+    public CharacterRoster rosterOpenFromIndex() throws IOException {
+        return CharacterRoster.open(config, charactersDir, indexFile);
+    }
+
+    @Benchmark
+    public StartupSnapshot.Loaded startupFromSnapshot() throws IOException {
+        return StartupSnapshot.load(setupFile, snapshotFile);
+    }
+}
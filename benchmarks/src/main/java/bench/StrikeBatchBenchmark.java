@@ -0,0 +1,67 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.RandomDamageManager;
+import util.StrikeBatch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每次调用推进 LANES 个独立状态各一步：
+ * 逐个调用 RandomDamageManager.isStrike 与 StrikeBatch.roll 的对比，分数为每次判定耗时。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrikeBatchBenchmark {
+
+    private static final int LANES = 4096;
+
+    @Param({"0.05"})
+    public double randomFactor;
+
+    private RandomDamageManager[] managers;
+    private StrikeBatch batch;
+    private long[] strikes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        managers = new RandomDamageManager[LANES];
+        for (int i = 0; i < LANES; i++) {
+            managers[i] = new RandomDamageManager(0.1, 0.15, randomFactor, 0.9);
+        }
+        batch = new StrikeBatch(LANES, 0.1, 0.15, randomFactor, 0.9);
+        strikes = new long[batch.bitsetLength()];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LANES)
+    public int scalar() {
+        int count = 0;
+        for (RandomDamageManager m : managers) {
+            if (m.isStrike()) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LANES)
+    public int batched() {
+        return batch.roll(strikes);
+    }
+}
@@ -0,0 +1,58 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import util.ConcurrentRandomDamageManager;
+import util.RandomDamageManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程共享同一个 manager 时的 isStrike 吞吐：
+ * 原版（无同步、会丢更新）与 CAS 版对比。
+ * 直接 main 运行可依次跑 1–64 线程；用 jar 运行时以 -t 指定线程数。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrikeContentionBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    private final RandomDamageManager unsynchronized = new RandomDamageManager(0.1, 0.15, 0.05, 0.9);
+    private final RandomDamageManager atomic = new ConcurrentRandomDamageManager(0.1, 0.15, 0.05, 0.9);
+
+    @Benchmark
+    public boolean unsynchronized() {
+        return unsynchronized.isStrike();
+    }
+
+    @Benchmark
+    public boolean casLoop() {
+        return atomic.isStrike();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options opt = new OptionsBuilder()
+                    .include(StrikeContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(opt).run();
+        }
+    }
+}
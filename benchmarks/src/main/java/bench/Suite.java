@@ -0,0 +1,45 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 跑整套（或按正则挑选的）基准，始终挂上 GC 分配剖析，结果写成 JSON 供 {@link Compare} 对比。
+ * 参数与 JMH 命令行相同，例如：java -cp target/benchmarks.jar bench.Suite Strike -wi 2 -i 3 -rff base.json；
+ * 未指定 -rff 时写到 results/{时间戳}.json。
+ */
+public final class Suite {
+
+    private Suite() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder opt = new OptionsBuilder().parent(cli)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON);
+        if (cli.getIncludes().isEmpty()) opt.include("bench\\..*Benchmark");
+
+        Path output = cli.getResult().hasValue()
+                ? Paths.get(cli.getResult().get())
+                : Paths.get("results", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        opt.result(output.toString());
+
+        new Runner(opt.build()).run();
+        System.out.println("results: " + output);
+    }
+}
@@ -1,10 +1,16 @@
 package model;
 
+import util.AssetCache;
 import util.PortraitLoader;
 
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
-public class Character {
+/**
+ * 角色模板：定义数据构造后不可变，portrait 配置只会被原子地整体替换，可被任意多场对局、任意线程共享。
+ * 对局中随 HP 变化的状态放在 {@link CharacterState}，由 {@link #newState()} 创建，不涉及 I/O。
+ */
+public final class Character {
 
     private final String id;
     private final String name;
@@ -14,8 +20,7 @@ public class Character {
     private final double attackScalingFactor;
     private final PortraitLoader portraitLoader;
     private final String position;
-
-    private Path portrait;   // 缓存最近一次根据 state 查到的 portrait
+    private final int positionId;    // position 驻留后的 id，供表查找
 
     public Character(String id,
                      String name,
@@ -32,9 +37,15 @@ public class Character {
         this.defenseScalingFactor = defenseScalingFactor;
         this.attackScalingFactor = attackScalingFactor;
         this.position = position;
+        this.positionId = PortraitLoader.positionId(position);
         this.portraitLoader = new PortraitLoader(portraitPath); // 内部已 reload
     }
 
+    /** 一场对局中本角色的可变状态 */
+    public CharacterState newState() {
+        return new CharacterState(this);
+    }
+
     /* ---------- 只读属性 ---------- */
     public String getId()                  { return id; }
     public String getName()                { return name; }
@@ -42,26 +53,39 @@ public class Character {
     public double getHpScalingFactor()     { return hpScalingFactor; }
     public double getDefenseScalingFactor(){ return defenseScalingFactor; }
     public double getAttackScalingFactor() { return attackScalingFactor; }
+    public String getPosition()            { return position; }
+    public int getPositionId()             { return positionId; }
 
     /* ---------- portrait 相关 ---------- */
     public Path getPortraitPath() {
         return portraitLoader.getPath();
     }
 
+    /** 替换 portrait 配置；PortraitLoader 原子替换快照，共享本模板的对局下次更新时切换 */
     public void setPortraitPath(Path newPath) {
         portraitLoader.setPath(newPath); // PortraitLoader 内部会 reload
     }
 
-    /**
-     * 根据角色当前状态更新 portrait，并返回其值
-     */
-    public Path updatePortrait(String state) {
-        this.portrait = portraitLoader.getPortrait(state, position);
-        return this.portrait;
+    /** 按状态字符串查找 portrait */
+    public Path portrait(String state) {
+        return portraitLoader.getPortrait(state, position);
     }
 
-    public Path getPortrait() {
-        return portrait;
+    /** 按 PlayerState 走预计算表，无字符串拼接与路径解析 */
+    public Path portrait(PlayerState state) {
+        return portraitLoader.getPortrait(state, positionId);
+    }
+
+    /** portrait 配置版本号，reload / setPortraitPath 后变化 */
+    int portraitGeneration() {
+        return portraitLoader.generation();
+    }
+
+    /**
+     * 选中角色时调用：后台把各状态的 portrait 读入资源缓存，战斗中切换状态不再等磁盘
+     */
+    public CompletableFuture<Void> preloadPortraits(AssetCache cache) {
+        return cache.prefetchAll(portraitLoader.portraitsFor(positionId));
     }
 
 }
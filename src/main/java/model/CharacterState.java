@@ -0,0 +1,85 @@
+package model;
+
+import util.CombatLog;
+import util.PlayerStateResolver;
+
+import java.nio.file.Path;
+
+/**
+ * 一场对局中某个角色的可变状态：模板引用加上 PlayerState 序号、portrait 配置版本号与对应的 portrait 路径。
+ * 状态与版本号都未变化时直接返回缓存的路径，不再查模板。
+ * 创建不涉及 I/O；每场对局每个参战者一份，只在该对局所在线程上使用，非线程安全。
+ */
+public final class CharacterState {
+
+    private static final PlayerState[] STATES = PlayerState.values();
+
+    private final Character template;
+    private byte state = -1;            // PlayerState.ordinal()，尚未更新时为 -1
+    private int portraitGeneration;     // state 对应的模板 portrait 配置版本
+    private Path portrait;              // state + portraitGeneration 对应的 portrait
+
+    private CombatLog combatLog;        // 非 null 时记录状态变化与 portrait 切换
+    private int logSubject;
+
+    CharacterState(Character template) {
+        this.template = template;
+    }
+
+    public Character template() {
+        return template;
+    }
+
+    /**
+     * 更新状态并返回对应 portrait；状态与 portrait 配置都未变化时不记录事件
+     */
+    public Path updatePortrait(PlayerState state) {
+        int generation = template.portraitGeneration();
+        if (state.ordinal() == this.state && generation == portraitGeneration) {
+            return portrait;
+        }
+        Path portrait = template.portrait(state);
+        CombatLog log = combatLog;
+        if (log != null) {
+            if (this.state >= 0 && this.state != state.ordinal()) log.stateChange(logSubject, STATES[this.state], state);
+            log.portraitSwitch(logSubject, state, template.getPositionId());
+        }
+        this.state = (byte) state.ordinal();
+        this.portraitGeneration = generation;
+        this.portrait = portrait;
+        return portrait;
+    }
+
+    /**
+     * 按剩余 HP 比例更新；每次掉血都可调用，只有跨过里程碑时才记录切换
+     */
+    public Path updatePortrait(double hpRatio, PlayerStateResolver resolver) {
+        return updatePortrait(resolver.resolve(hpRatio));
+    }
+
+    /** 当前状态，尚未更新过时为 null */
+    public PlayerState getState() {
+        return state < 0 ? null : STATES[state];
+    }
+
+    /** 当前状态的 portrait（按模板最新配置），尚未更新过时为 null */
+    public Path getPortrait() {
+        if (state < 0) return null;
+        return template.portraitGeneration() == portraitGeneration ? portrait : template.portrait(STATES[state]);
+    }
+
+    /** 把状态变化与 portrait 切换写入 log（subject 为事件中的主体编号）；log 为 null 时停止记录 */
+    public void setCombatLog(CombatLog log, int subject) {
+        this.combatLog = log;
+        this.logSubject = subject;
+    }
+
+    /** 清空状态与日志绑定，供下一场对局复用 */
+    public void reset() {
+        state = -1;
+        portraitGeneration = 0;
+        portrait = null;
+        combatLog = null;
+        logSubject = 0;
+    }
+}
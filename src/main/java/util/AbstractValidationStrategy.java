@@ -3,5 +3,15 @@ package util;
 import java.nio.file.Path;
 
 public interface AbstractValidationStrategy {
-    boolean validate(Path path);
+    /** 校验并给出全部不合法原因 */
+    FilterResult check(Path path);
+
+    default boolean validate(Path path) {
+        return check(path).selectable();
+    }
+
+    /** 校验结果缓存中区分策略（及其参数）的标识 */
+    default String cacheKey() {
+        return getClass().getName();
+    }
 }
@@ -0,0 +1,181 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * portrait 图片、字体等资源文件的原始字节缓存，按规范化绝对路径为键。
+ * 文件一次性读进缓存自有的堆内缓冲区（不 mmap），之后读取不再触发磁盘 I/O；
+ * 磁盘上的文件被截断或改写不影响已缓存的内容，淘汰后内存随最后一个引用释放，预算按实际占用计。
+ * 总字节数超过预算时按 LRU 淘汰，超过预算的单个文件照常返回但不缓存。
+ * 同一文件的并发加载只进行一次；{@link #prefetch} 在共享执行器上后台加载。
+ * 文件内容变化不会自动感知，需调用 {@link #invalidate(Path)}。
+ */
+public final class AssetCache {
+
+    /** 共享实例的默认预算 */
+    public static final long DEFAULT_BUDGET = 64L << 20;
+
+    /** 命中 / 未命中 / 淘汰计数与当前占用快照 */
+    public record Stats(long hits, long misses, long evictions, long bytes, int entries) {
+    }
+
+    private static final class Holder {
+        static final AssetCache INSTANCE = new AssetCache(DEFAULT_BUDGET);
+    }
+
+    public static @NotNull AssetCache shared() {
+        return Holder.INSTANCE;
+    }
+
+    private final long budget;
+    /* 按访问顺序排列，读写都在 this 上同步 */
+    private final LinkedHashMap<Path, ByteBuffer> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private final ConcurrentHashMap<Path, CompletableFuture<ByteBuffer>> inflight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AssetCache(long budgetBytes) {
+        if (budgetBytes < 0) throw new IllegalArgumentException("budgetBytes must be non-negative");
+        this.budget = budgetBytes;
+    }
+
+    /**
+     * 取文件内容（只读视图，position 为 0）；未缓存时在当前线程加载
+     */
+    public @NotNull ByteBuffer get(@NotNull Path path) {
+        Path key = key(path);
+        ByteBuffer cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached.duplicate();
+        }
+        return loadOnce(key).duplicate();
+    }
+
+    /** 后台加载，已缓存时立即完成 */
+    public @NotNull CompletableFuture<ByteBuffer> prefetch(@NotNull Path path) {
+        Path key = key(path);
+        ByteBuffer cached = lookup(key);
+        if (cached != null) return CompletableFuture.completedFuture(cached.duplicate());
+        return CompletableFuture.supplyAsync(() -> loadOnce(key).duplicate(), BatchExecutor.shared());
+    }
+
+    /** 并行预取一组文件；单个文件失败不影响其他文件，返回的 future 以第一个错误结束 */
+    public @NotNull CompletableFuture<Void> prefetchAll(@NotNull Collection<Path> paths) {
+        List<CompletableFuture<ByteBuffer>> futures = new ArrayList<>(paths.size());
+        for (Path p : paths) {
+            futures.add(prefetch(p));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    public synchronized boolean contains(@NotNull Path path) {
+        return entries.containsKey(key(path));
+    }
+
+    public synchronized void invalidate(@NotNull Path path) {
+        ByteBuffer removed = entries.remove(key(path));
+        if (removed != null) bytes -= removed.capacity();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized @NotNull Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), bytes, entries.size());
+    }
+
+    public long budget() {
+        return budget;
+    }
+
+    /* ---------------- 内部 ---------------- */
+
+    private synchronized ByteBuffer lookup(Path key) {
+        return entries.get(key);
+    }
+
+    private ByteBuffer loadOnce(Path key) {
+        CompletableFuture<ByteBuffer> mine = new CompletableFuture<>();
+        CompletableFuture<ByteBuffer> running = inflight.putIfAbsent(key, mine);
+        if (running != null) {
+            hits.increment();
+            return join(running);
+        }
+        try {
+            ByteBuffer buffer = lookup(key);
+            if (buffer != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                buffer = read(key);
+                store(key, buffer);
+            }
+            mine.complete(buffer);
+            return buffer;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    private synchronized void store(Path key, ByteBuffer buffer) {
+        long size = buffer.capacity();
+        if (size > budget) return;
+        ByteBuffer previous = entries.put(key, buffer);
+        if (previous != null) bytes -= previous.capacity();
+        bytes += size;
+        Iterator<Map.Entry<Path, ByteBuffer>> it = entries.entrySet().iterator();
+        while (bytes > budget && it.hasNext()) {
+            Map.Entry<Path, ByteBuffer> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            bytes -= eldest.getValue().capacity();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static ByteBuffer read(Path path) {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(path)).asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load asset " + path, e);
+        }
+    }
+
+    private static ByteBuffer join(CompletableFuture<ByteBuffer> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private static Path key(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
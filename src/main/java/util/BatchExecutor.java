@@ -0,0 +1,53 @@
+package util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 批量 I/O 任务的共享有界执行器：
+ * JDK 21+ 使用虚拟线程（并发数由信号量限制），否则退回固定并行度的 ForkJoinPool。
+ */
+final class BatchExecutor {
+
+    /** 同时进行的任务上限 */
+    static final int MAX_CONCURRENCY = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final Executor SHARED = create();
+
+    private BatchExecutor() {
+    }
+
+    static Executor shared() {
+        return SHARED;
+    }
+
+    private static Executor create() {
+        ExecutorService virtual = virtualThreadExecutor();
+        if (virtual == null) {
+            return new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        }
+        Semaphore permits = new Semaphore(MAX_CONCURRENCY);
+        return task -> virtual.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /** 通过反射获取，保持以较低 JDK 版本编译 */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package util;
+
+import java.util.List;
+
+/**
+ * 一次目录批量校验的结果与耗时
+ */
+public record BatchReport(
+        List<Timed> results,     // 按文件名排序的全部结果
+        long wallNanos)          // 整批墙钟耗时
+{
+    /** 单个文件的校验结果与耗时 */
+    public record Timed(FilterResult result, long nanos) {
+    }
+
+    public long selectableCount() {
+        return results.stream().filter(t -> t.result().selectable()).count();
+    }
+
+    /** 各文件耗时之和（与 wallNanos 之比约为实际并行度） */
+    public long totalFileNanos() {
+        return results.stream().mapToLong(Timed::nanos).sum();
+    }
+
+    public long slowestFileNanos() {
+        return results.stream().mapToLong(Timed::nanos).max().orElse(0);
+    }
+}
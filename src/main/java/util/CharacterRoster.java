@@ -0,0 +1,437 @@
+package util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.Character;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * 按需加载的角色名册：列表与筛选只读紧凑索引 .cache/roster.idx（整体读进堆内缓冲区，按需解码），
+ * 完整定义与 portrait 配置在第一次选中时才读取，同一角色的并发选中只加载一次。
+ * <pre>
+ * int MAGIC, int VERSION, long 目录 mtime, int 行数, int 字符串池偏移, int 目录路径, int 校验策略键,
+ * 行[行数]（按 id 排序，每行 56 字节）: int id, int name, int position, int file,
+ *     double hp, double defense, double attack, long mtime, long size,
+ * 字符串池: [int 长度][UTF-8], int crc32c(之前全部字节)
+ * </pre>
+ * 其中字符串字段为池内偏移。角色目录增删文件（目录 mtime 变化）或缩放系数约束变化时整体重建；
+ * 单个文件被原地编辑时在选中时发现，按文件当前内容加载并在后台重建索引。
+ * <p>
+ * 重建由目录批量校验的 future 串接而成，不在 BatchExecutor 上阻塞等待；同一时刻至多一次重建在运行，
+ * 运行期间再来的请求合并为排在其后的一次。索引不做 mmap，避免映射未释放时 ATOMIC_MOVE 替换在 Windows 上失败。
+ */
+public final class CharacterRoster {
+
+    private static final int MAGIC = 0x53455249; // "SERI"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int ROW_BYTES = 56;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** 索引中的一行 */
+    public record Entry(String id, String name, String position,
+                        double hpScalingFactor, double defenseScalingFactor, double attackScalingFactor,
+                        Path file) {
+    }
+
+    /** 当前索引内容：buf 为整个索引文件，只用绝对位置读取，可多线程共享 */
+    private record Table(ByteBuffer buf, int count) {
+    }
+
+    private final Path dir;
+    private final Path indexFile;
+    private final ConfigValidator validator;
+    private final String validatorKey;
+    private volatile Table table;
+    private volatile boolean fromIndex;
+    private final ConcurrentHashMap<String, CompletableFuture<Character>> selected = new ConcurrentHashMap<>();
+    private final Object rebuildLock = new Object();
+    /* 最近一次发起的重建，以及尚未开始、可供合并的那一次；都由 rebuildLock 保护 */
+    private CompletableFuture<Void> rebuilding = CompletableFuture.completedFuture(null);
+    private CompletableFuture<Void> queued;
+
+    private CharacterRoster(Path dir, Path indexFile, GameConfig config) {
+        this.dir = dir.toAbsolutePath().normalize();
+        this.indexFile = indexFile;
+        CharacterValidationStrategy strategy = new CharacterValidationStrategy(config);
+        this.validator = new ConfigValidator(strategy);
+        this.validatorKey = strategy.cacheKey();
+    }
+
+    /** 角色目录取 config.charactersPath，索引在 .cache/roster.idx */
+    public static @NotNull CharacterRoster open(@NotNull GameConfig config) throws IOException {
+        return open(config, Paths.get(config.charactersPath()), ConfigFinder.CACHE_DIR.resolve("roster.idx"));
+    }
+
+    /**
+     * 索引有效时直接读入，否则扫描目录（校验全部文件，不读 portrait）后重建。
+     * 会等待重建完成，不要在 BatchExecutor 的任务里调用，请用 {@link #openAsync}
+     */
+    public static @NotNull CharacterRoster open(@NotNull GameConfig config, @NotNull Path charactersDir,
+                                                @NotNull Path indexFile) throws IOException {
+        return join(openAsync(config, charactersDir, indexFile));
+    }
+
+    public static @NotNull CompletableFuture<CharacterRoster> openAsync(@NotNull GameConfig config) {
+        return openAsync(config, Paths.get(config.charactersPath()), ConfigFinder.CACHE_DIR.resolve("roster.idx"));
+    }
+
+    /** 同 {@link #open(GameConfig, Path, Path)}，需要重建时不阻塞调用线程 */
+    public static @NotNull CompletableFuture<CharacterRoster> openAsync(@NotNull GameConfig config,
+                                                                       @NotNull Path charactersDir,
+                                                                       @NotNull Path indexFile) {
+        CharacterRoster roster = new CharacterRoster(charactersDir, indexFile, config);
+        Table cached = roster.read();
+        if (cached != null) {
+            roster.table = cached;
+            roster.fromIndex = true;
+            return CompletableFuture.completedFuture(roster);
+        }
+        return roster.rebuildAsync().thenApply(v -> roster);
+    }
+
+    /* ---------------- 列表 ---------------- */
+
+    public int size() {
+        return table.count();
+    }
+
+    /** 第 i 行（按 id 排序） */
+    public @NotNull Entry entry(int i) {
+        Table t = table;
+        if (i < 0 || i >= t.count()) throw new IndexOutOfBoundsException(i);
+        return decode(t, i);
+    }
+
+    /** 按 id 二分查找，不存在时返回 null */
+    public @Nullable Entry find(@NotNull String id) {
+        Table t = table;
+        int row = indexOf(t, id);
+        return row < 0 ? null : decode(t, row);
+    }
+
+    /** 满足条件的行，按 id 排序 */
+    public @NotNull List<Entry> list(@NotNull Predicate<Entry> filter) {
+        Table t = table;
+        List<Entry> result = new ArrayList<>();
+        for (int i = 0; i < t.count(); i++) {
+            Entry e = decode(t, i);
+            if (filter.test(e)) result.add(e);
+        }
+        return result;
+    }
+
+    public @NotNull List<Entry> list() {
+        return list(e -> true);
+    }
+
+    /** 本次打开是否直接使用了已有索引（false 表示刚扫描重建） */
+    public boolean fromIndex() {
+        return fromIndex;
+    }
+
+    /* ---------------- 选中 ---------------- */
+
+    /**
+     * 取完整角色：第一次选中时读定义并解析 portrait 配置，并在后台把各状态的 portrait 读入
+     * {@link AssetCache#shared()}；之后直接返回同一实例。
+     * id 不存在抛 IllegalArgumentException；文件已被改为不合法或读取失败抛 IOException，下次选中会重试
+     */
+    public @NotNull Character select(@NotNull String id) throws IOException {
+        CompletableFuture<Character> mine = new CompletableFuture<>();
+        CompletableFuture<Character> running = selected.putIfAbsent(id, mine);
+        if (running != null) return join(running);
+        try {
+            Character character = load(id);
+            mine.complete(character);
+            character.preloadPortraits(AssetCache.shared());   // 不等待；图片缺失时战斗中按需读取再报错
+            return character;
+        } catch (IOException | RuntimeException e) {
+            selected.remove(id, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** 在共享执行器上后台选中，已加载时立即完成 */
+    public @NotNull CompletableFuture<Character> selectAsync(@NotNull String id) {
+        CompletableFuture<Character> loaded = selected.get(id);
+        if (loaded != null) return loaded;
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return select(id);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, BatchExecutor.shared());
+    }
+
+    public boolean isSelected(@NotNull String id) {
+        CompletableFuture<Character> f = selected.get(id);
+        return f != null && f.isDone() && !f.isCompletedExceptionally();
+    }
+
+    private Character load(String id) throws IOException {
+        Table t = table;
+        int row = indexOf(t, id);
+        if (row < 0) throw new IllegalArgumentException("Unknown character id: " + id);
+        int base = HEADER_BYTES + row * ROW_BYTES;
+        Path file = Paths.get(string(t.buf(), t.buf().getInt(base + 12)));
+
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attrs.lastModifiedTime().toMillis() != t.buf().getLong(base + 40) || attrs.size() != t.buf().getLong(base + 48)) {
+            // 建索引后被编辑过：按当前内容重新校验，索引在后台重建
+            FilterResult result = validator.check(file);
+            rebuildAsync();   // 与其他过期发现合并；失败时下次打开仍会重建
+            if (!result.selectable()) {
+                throw new IOException("Invalid character " + file + ": " + result.reasons());
+            }
+        }
+
+        JsonNode n = MAPPER.readTree(file.toFile());
+        if (!id.equals(n.get("id").asText())) {
+            rebuildAsync();
+            throw new IOException("Character " + id + " is no longer defined in " + file);
+        }
+        Path portraitPath = file.getParent().resolve(n.get("portraitPath").asText()).normalize();
+        return new Character(n.get("id").asText(), n.get("name").asText(), n.get("desc").asText(),
+                n.get("hpScalingFactor").doubleValue(),
+                n.get("defenseScalingFactor").doubleValue(),
+                n.get("attackScalingFactor").doubleValue(),
+                portraitPath, n.get("position").asText());
+    }
+
+    /* ---------------- 建索引 ---------------- */
+
+    /**
+     * 重新扫描目录并替换索引，等待完成；已选中的角色不受影响。
+     * 不要在 BatchExecutor 的任务里调用，请用 {@link #rebuildAsync}
+     */
+    public void rebuild() throws IOException {
+        join(rebuildAsync());
+    }
+
+    /**
+     * 发起一次重建。已有重建在运行时排在其后，尚未开始的那一次被所有后来的请求共享，
+     * 因此至多一次在运行、一次在等待
+     */
+    public @NotNull CompletableFuture<Void> rebuildAsync() {
+        synchronized (rebuildLock) {
+            if (queued != null) return queued;
+            CompletableFuture<Void> start = new CompletableFuture<>();
+            CompletableFuture<Void> next = start.thenCompose(v -> scan());
+            queued = next;
+            rebuilding.whenComplete((v, e) -> {
+                synchronized (rebuildLock) {
+                    if (queued == next) queued = null;
+                }
+                start.complete(null);
+            });
+            rebuilding = next;
+            return next;
+        }
+    }
+
+    /** 目录批量校验完成后在回调里建表，不阻塞执行器线程 */
+    private CompletableFuture<Void> scan() {
+        long dirMtime;
+        CompletableFuture<BatchReport> report;
+        try {
+            if (Files.isDirectory(dir)) {
+                dirMtime = Files.getLastModifiedTime(dir).toMillis();
+                report = validator.validateDirectory(dir);
+            } else {
+                dirMtime = 0;
+                report = CompletableFuture.completedFuture(new BatchReport(List.of(), 0));
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return report.thenAccept(r -> {
+            try {
+                install(r, dirMtime);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private void install(BatchReport report, long dirMtime) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        for (BatchReport.Timed timed : report.results()) {
+            if (!timed.result().selectable()) continue;
+            Path file = timed.result().file().toAbsolutePath().normalize();
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            JsonNode n = MAPPER.readTree(file.toFile());
+            rows.add(new Row(n.get("id").asText(), n.get("name").asText(), n.get("position").asText(),
+                    file.toString(), n.get("hpScalingFactor").doubleValue(),
+                    n.get("defenseScalingFactor").doubleValue(), n.get("attackScalingFactor").doubleValue(),
+                    attrs.lastModifiedTime().toMillis(), attrs.size()));
+        }
+        // 按 id 排序供二分查找；重复 id 只保留文件名靠前的一个
+        rows.sort(Comparator.comparing(Row::id));
+        List<Row> unique = new ArrayList<>(rows.size());
+        for (Row r : rows) {
+            if (unique.isEmpty() || !unique.get(unique.size() - 1).id().equals(r.id())) unique.add(r);
+        }
+
+        byte[] bytes = encode(unique, dirMtime);
+        write(bytes);
+        table = new Table(ByteBuffer.wrap(bytes).asReadOnlyBuffer(), unique.size());
+        fromIndex = false;
+    }
+
+    private record Row(String id, String name, String position, String file,
+                       double hp, double defense, double attack, long mtime, long size) {
+    }
+
+    private byte[] encode(List<Row> rows, long dirMtime) throws IOException {
+        ByteArrayOutputStream poolBytes = new ByteArrayOutputStream(rows.size() * 64 + 256);
+        DataOutputStream pool = new DataOutputStream(poolBytes);
+        int poolOffset = HEADER_BYTES + rows.size() * ROW_BYTES;
+
+        int dirRef = poolOffset + pool.size();
+        writeString(pool, dir.toString());
+        int keyRef = poolOffset + pool.size();
+        writeString(pool, validatorKey);
+
+        ByteArrayOutputStream rowBytes = new ByteArrayOutputStream(rows.size() * ROW_BYTES);
+        DataOutputStream out = new DataOutputStream(rowBytes);
+        for (Row r : rows) {
+            out.writeInt(poolOffset + pool.size());
+            writeString(pool, r.id());
+            out.writeInt(poolOffset + pool.size());
+            writeString(pool, r.name());
+            out.writeInt(poolOffset + pool.size());
+            writeString(pool, r.position());
+            out.writeInt(poolOffset + pool.size());
+            writeString(pool, r.file());
+            out.writeDouble(r.hp());
+            out.writeDouble(r.defense());
+            out.writeDouble(r.attack());
+            out.writeLong(r.mtime());
+            out.writeLong(r.size());
+        }
+
+        ByteArrayOutputStream all = new ByteArrayOutputStream(poolOffset + pool.size() + 4);
+        DataOutputStream file = new DataOutputStream(all);
+        file.writeInt(MAGIC);
+        file.writeInt(VERSION);
+        file.writeLong(dirMtime);
+        file.writeInt(rows.size());
+        file.writeInt(poolOffset);
+        file.writeInt(dirRef);
+        file.writeInt(keyRef);
+        rowBytes.writeTo(file);
+        poolBytes.writeTo(file);
+        CRC32C crc = new CRC32C();
+        crc.update(all.toByteArray());
+        file.writeInt((int) crc.getValue());
+        return all.toByteArray();
+    }
+
+    /** 写临时文件后 ATOMIC_MOVE；内存中直接使用 bytes，写失败也不影响本次打开 */
+    private void write(byte[] bytes) {
+        try {
+            Path parent = indexFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "roster", ".tmp");
+            try {
+                Files.write(tmp, bytes);
+                Files.move(tmp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException ignore) {
+            // 索引只是加速手段，下次打开时再重建
+        }
+    }
+
+    /* ---------------- 读 ---------------- */
+
+    /** 索引存在、完整且未过期时返回内容，否则返回 null */
+    private @Nullable Table read() {
+        if (!Files.isRegularFile(indexFile)) return null;
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(indexFile)).asReadOnlyBuffer();
+            int length = buf.capacity();
+            if (length < HEADER_BYTES + 4 || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) return null;
+            CRC32C crc = new CRC32C();
+            crc.update(buf.duplicate().limit(length - 4));
+            if ((int) crc.getValue() != buf.getInt(length - 4)) return null;
+
+            long dirMtime = buf.getLong(8);
+            int count = buf.getInt(16);
+            if (count < 0 || HEADER_BYTES + (long) count * ROW_BYTES > buf.getInt(20)) return null;
+            if (!dir.toString().equals(string(buf, buf.getInt(24)))) return null;
+            if (!validatorKey.equals(string(buf, buf.getInt(28)))) return null;
+            long current = Files.isDirectory(dir) ? Files.getLastModifiedTime(dir).toMillis() : 0;
+            if (current != dirMtime) return null;
+            return new Table(buf, count);
+        } catch (IOException | RuntimeException e) {
+            return null;   // 损坏或截断：按过期处理
+        }
+    }
+
+    private static Entry decode(Table t, int row) {
+        ByteBuffer b = t.buf();
+        int base = HEADER_BYTES + row * ROW_BYTES;
+        return new Entry(string(b, b.getInt(base)), string(b, b.getInt(base + 4)), string(b, b.getInt(base + 8)),
+                b.getDouble(base + 16), b.getDouble(base + 24), b.getDouble(base + 32),
+                Paths.get(string(b, b.getInt(base + 12))));
+    }
+
+    private static int indexOf(Table t, String id) {
+        int lo = 0, hi = t.count() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = string(t.buf(), t.buf().getInt(HEADER_BYTES + mid * ROW_BYTES)).compareTo(id);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private static String string(ByteBuffer buf, int offset) {
+        byte[] b = new byte[buf.getInt(offset)];
+        buf.get(offset + 4, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
@@ -1,10 +1,33 @@
 package util;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.nio.file.Path;
 
 public class CharacterValidationStrategy implements AbstractValidationStrategy{
+    private final Schema schema;
+    private final String cacheKey;
+
+    public CharacterValidationStrategy() {
+        this(null);
+    }
+
+    /** 带 GameConfig 时额外检查缩放系数区间与总和上限 */
+    public CharacterValidationStrategy(@Nullable GameConfig config) {
+        this.schema = config == null ? Schemas.CHARACTER : Schemas.character(config);
+        // 结果依赖缩放系数区间与上限，二者变化时缓存需失效
+        this.cacheKey = config == null
+                ? getClass().getName()
+                : getClass().getName() + ':' + config.scalingFactorRegion() + ':' + config.totalScalingFactorLimitation();
+    }
+
+    @Override
+    public FilterResult check(Path path) {
+        return schema.check(path);
+    }
+
     @Override
-    public boolean validate(Path path) {
-        return false;
+    public String cacheKey() {
+        return cacheKey;
     }
 }
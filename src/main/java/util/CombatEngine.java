@@ -0,0 +1,401 @@
+package util;
+
+import model.Character;
+import model.PlayerState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * 无界面的对战引擎：按 GameConfig 的区间与角色缩放系数打完整场对局。
+ * <p>
+ * 规则（简化）：开局双方从 carriedHpRegion / carriedDefenseRegion 抽取 HP 与减伤比例并乘以各自系数；
+ * 轮流行动，HP 比例低于第一个 portraitsTransferMilestone 且技能点足够时恢复（recoveryRegion），
+ * 否则攻击：damageRegion × attackScalingFactor，暴击（RandomDamageManager 规则）再乘 strikeFactor，
+ * 最后按对方减伤比例折算。累计造成 / 承受 makeDamageToGetPoint / getDamageToGetPoint 伤害各得 1 技能点。
+ * 一方 HP 归零即结束，超过 {@link Rules#maxTurns()} 回合判平局。
+ * <p>
+ * 伤害、恢复量与得点阈值都乘以 {@link Rules#hitScale()}。{@link Rules#of(GameRules)} 取 1，即按配置原值结算，
+ * 调整伤害或 HP 区间会如实反映在胜率与回合数上；可用 {@link Rules#withHitScale} 另行指定。
+ * {@link Rules#calibrated()} 是显式的可选项：把平均 HP 固定为约 {@link Rules#DEFAULT_HITS_TO_KILL} 次平均普通命中，
+ * 伤害与 HP 的整体量级因此被归一化掉，只剩区间形状、减伤、暴击等相对差异，适合比较角色系数，不适合评估数值调整。
+ * <p>
+ * 带 CombatLog 的 {@link #playMatch} 除暴击判定外，还按 {@link Rules#milestones()} 用 PlayerStateResolver
+ * 解析双方 HP 比例，记录 PlayerState 变化与 portrait 切换（开局各记一次 portrait），与 CharacterState 的记录方式一致。
+ * <p>
+ * 热路径只用基本类型字段；每个工作任务复用自己的 Fighter，不共享可变状态、不加锁。
+ * 随机流与 StrikeSimulation 一样按固定二分树拆分，结果与线程数无关。
+ */
+public final class CombatEngine {
+
+    /** 单个任务顺序执行的对局数上限 */
+    private static final int LEAF_MATCHES = 1024;
+
+    /** 减伤比例上限，避免无法击败的配置 */
+    private static final double MAX_DEFENSE = 0.95;
+
+    /** GameConfig 中对战用到的部分，展开为基本类型 */
+    public record Rules(double hpMin, double hpMax,
+                        double defenseMin, double defenseMax,
+                        double damageMin, double damageMax,
+                        double recoveryMin, double recoveryMax,
+                        int initialPoints, int maxPoints, int recoveryCost,
+                        double makeDamagePerPoint, double getDamagePerPoint,
+                        double recoverBelow, @NotNull List<Double> milestones,
+                        double strikeFactor, double hitScale,
+                        @NotNull StrikeSimulation.Params strike,
+                        int maxTurns) {
+
+        public static final int DEFAULT_MAX_TURNS = 1000;
+
+        /** {@link #calibrated()} 的默认值：平均 HP 约承受多少次平均伤害的普通命中 */
+        public static final int DEFAULT_HITS_TO_KILL = 8;
+
+        public Rules {
+            milestones = List.copyOf(milestones);
+            if (!(hitScale > 0) || Double.isInfinite(hitScale)) {
+                throw new IllegalArgumentException("hitScale must be positive and finite");
+            }
+        }
+
+        public static @NotNull Rules of(@NotNull GameConfig config) {
+            return of(GameRules.of(config));
+        }
+
+        /** 恢复的技能点消耗取 skillCostRegion 的中值（至少 1）；hitScale 为 1，按配置原值结算 */
+        public static @NotNull Rules of(@NotNull GameRules r) {
+            return new Rules(
+                    r.carriedHpMin(), r.carriedHpMax(),
+                    r.carriedDefenseMin(), r.carriedDefenseMax(),
+                    r.damageMin(), r.damageMax(),
+                    r.recoveryMin(), r.recoveryMax(),
+                    r.initialSkillPoint(), r.playerSkillPointMax(),
+                    Math.max(1, (r.skillCostMin() + r.skillCostMax() + 1) / 2),
+                    r.makeDamageToGetPoint(), r.getDamageToGetPoint(),
+                    r.milestoneCount() == 0 ? 0 : r.milestone(0), milestonesOf(r), r.strikeFactor(), 1.0,
+                    new StrikeSimulation.Params(r.initialStrikeProbability(), r.strikeStepBase(),
+                            r.randomFactorLimitation(), r.highestStrikeProbability()),
+                    DEFAULT_MAX_TURNS);
+        }
+
+        /** 换一个单次命中缩放，其余规则不变 */
+        public @NotNull Rules withHitScale(double hitScale) {
+            return new Rules(hpMin, hpMax, defenseMin, defenseMax, damageMin, damageMax, recoveryMin, recoveryMax,
+                    initialPoints, maxPoints, recoveryCost, makeDamagePerPoint, getDamagePerPoint,
+                    recoverBelow, milestones, strikeFactor, hitScale, strike, maxTurns);
+        }
+
+        /** 同 calibrated(DEFAULT_HITS_TO_KILL) */
+        public @NotNull Rules calibrated() {
+            return calibrated(DEFAULT_HITS_TO_KILL);
+        }
+
+        /**
+         * 按 平均 HP / (平均伤害 × hitsToKill) 重设 hitScale，使平均约 hitsToKill 次未减伤的普通命中击倒对手。
+         * 注意这会抵消伤害与 HP 区间的整体调整（两者同比缩放后结果不变）；平均 HP 或伤害不为正时不缩放
+         */
+        public @NotNull Rules calibrated(int hitsToKill) {
+            if (hitsToKill < 1) throw new IllegalArgumentException("hitsToKill must be >= 1");
+            double meanHp = (hpMin + hpMax) / 2.0;
+            double meanDamage = (damageMin + damageMax) / 2.0;
+            return withHitScale(meanHp > 0 && meanDamage > 0 ? meanHp / (meanDamage * hitsToKill) : 1.0);
+        }
+
+        private static List<Double> milestonesOf(GameRules r) {
+            Double[] values = new Double[r.milestoneCount()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = r.milestone(i);
+            }
+            return List.of(values);
+        }
+    }
+
+    /** 单场结果：winner 为 0（先手方）/ 1（后手方）/ -1（平局） */
+    public record Outcome(int winner, int turns) {
+    }
+
+    /**
+     * 循环赛结果：wins[i][j] 为 ids[i] 战胜 ids[j] 的场数
+     */
+    public record Tournament(List<String> ids, long[][] wins, long draws, long matches, long turns, long wallNanos) {
+        public double matchesPerSecond() {
+            return wallNanos == 0 ? 0 : matches * 1e9 / wallNanos;
+        }
+
+        /** ids[i] 的总胜率（平局不计胜） */
+        public double winRate(int i) {
+            long won = 0, played = 0;
+            for (int j = 0; j < ids.size(); j++) {
+                won += wins[i][j];
+                played += wins[i][j] + wins[j][i];
+            }
+            return played == 0 ? 0 : (double) won / played;
+        }
+    }
+
+    private CombatEngine() {
+    }
+
+    /** 以 seed 打一场；相同参数与种子结果完全相同 */
+    public static @NotNull Outcome playMatch(@NotNull Rules rules, @NotNull Character first, @NotNull Character second,
+                                             long seed) {
+        return playMatch(rules, first, second, seed, null);
+    }
+
+    /** 同上，并把暴击判定、PlayerState 变化与 portrait 切换写入 log（主体 0 为先手方，1 为后手方） */
+    public static @NotNull Outcome playMatch(@NotNull Rules rules, @NotNull Character first, @NotNull Character second,
+                                             long seed, @Nullable CombatLog log) {
+        Fighter a = new Fighter(), b = new Fighter();
+        a.bind(first);
+        b.bind(second);
+        RandomDamageManager strike = strikeOf(rules);
+        RandomGenerator random = RandomDamageManager.generator(seed);
+        int[] turns = new int[1];
+        PlayerStateResolver states = log == null ? null : PlayerStateResolver.of(rules.milestones());
+        int winner = play(rules, strike, a, b, random, turns, log, states);
+        return new Outcome(winner, turns[0]);
+    }
+
+    /** 在公共 ForkJoinPool 上运行 */
+    public static @NotNull Tournament roundRobin(@NotNull Rules rules, @NotNull List<Character> roster,
+                                                 int matchesPerPair, long rootSeed) {
+        return roundRobin(rules, roster, matchesPerPair, rootSeed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 每对角色打 matchesPerPair 场（轮流先手），在 pool 上并行执行
+     */
+    public static @NotNull Tournament roundRobin(@NotNull Rules rules, @NotNull List<Character> roster,
+                                                 int matchesPerPair, long rootSeed, @NotNull ForkJoinPool pool) {
+        if (matchesPerPair < 0) throw new IllegalArgumentException("matchesPerPair must be non-negative");
+        int n = roster.size();
+        List<String> ids = new ArrayList<>(n);
+        double[] scaling = new double[n * 3];
+        for (int i = 0; i < n; i++) {
+            Character c = roster.get(i);
+            ids.add(c.getId());
+            scaling[i * 3] = c.getHpScalingFactor();
+            scaling[i * 3 + 1] = c.getDefenseScalingFactor();
+            scaling[i * 3 + 2] = c.getAttackScalingFactor();
+        }
+        int[] pairs = new int[n * (n - 1)];
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                pairs[p++] = i;
+                pairs[p++] = j;
+            }
+        }
+        long matches = (long) (pairs.length / 2) * matchesPerPair;
+
+        long start = System.nanoTime();
+        Tally tally = pool.invoke(new TournamentTask(new Shared(rules, strikeOf(rules), scaling, pairs, matchesPerPair, n),
+                RandomDamageManager.generator(rootSeed), 0, matches));
+        long wall = System.nanoTime() - start;
+
+        long[][] wins = new long[n][n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(tally.wins, i * n, wins[i], 0, n);
+        }
+        return new Tournament(List.copyOf(ids), wins, tally.draws, matches, tally.turns, wall);
+    }
+
+    /* ---------------- 对局 ---------------- */
+
+    /** 对局中一方的可变状态，基本类型字段，按任务复用 */
+    private static final class Fighter {
+        double hpScale, defenseScale, attackScale;
+        double maxHp, hp, defense;
+        int points;
+        double dealt, taken;
+        double strikeProbability;
+        int positionId;
+        PlayerState state;       // 只在记录日志时维护
+
+        void bind(Character c) {
+            bind(c.getHpScalingFactor(), c.getDefenseScalingFactor(), c.getAttackScalingFactor());
+            positionId = c.getPositionId();
+        }
+
+        void bind(double hpScale, double defenseScale, double attackScale) {
+            this.hpScale = hpScale;
+            this.defenseScale = defenseScale;
+            this.attackScale = attackScale;
+        }
+
+        void reset(Rules rules, RandomGenerator random) {
+            maxHp = Math.max(1, uniform(random, rules.hpMin, rules.hpMax) * hpScale);
+            hp = maxHp;
+            defense = Math.min(MAX_DEFENSE, uniform(random, rules.defenseMin, rules.defenseMax) * defenseScale);
+            points = rules.initialPoints;
+            dealt = 0;
+            taken = 0;
+            strikeProbability = rules.strike.initialProbability();
+            state = null;
+        }
+    }
+
+    /**
+     * 打一场，返回 0（a 胜）/ 1（b 胜）/ -1（平局）；a 先手。turns[0] 写入回合数；
+     * log 可为 null，非 null 时 states 也不为 null
+     */
+    private static int play(Rules rules, RandomDamageManager strike, Fighter a, Fighter b,
+                            RandomGenerator random, int[] turns,
+                            @Nullable CombatLog log, @Nullable PlayerStateResolver states) {
+        a.reset(rules, random);
+        b.reset(rules, random);
+        if (log != null) {
+            logState(log, states, a, 0);
+            logState(log, states, b, 1);
+        }
+        Fighter actor = a, target = b;
+        for (int turn = 1; turn <= rules.maxTurns; turn++) {
+            if (actor.hp < actor.maxHp * rules.recoverBelow
+                    && actor.points >= rules.recoveryCost && rules.recoveryMax > 0) {
+                actor.points -= rules.recoveryCost;
+                actor.hp = Math.min(actor.maxHp,
+                        actor.hp + uniform(random, rules.recoveryMin, rules.recoveryMax) * rules.hitScale);
+                if (log != null) logState(log, states, actor, actor == a ? 0 : 1);
+            } else {
+                double p = strike.probabilityAt(actor.strikeProbability, random);
+                boolean struck = random.nextDouble() < p;
+                Metrics.strike(p, struck);
+                if (log != null) log.strikeRoll(actor == a ? 0 : 1, p, struck);
+                actor.strikeProbability = struck
+                        ? rules.strike.initialProbability()
+                        : strike.stepFrom(actor.strikeProbability, random);
+
+                double damage = uniform(random, rules.damageMin, rules.damageMax) * rules.hitScale
+                        * actor.attackScale * (struck ? rules.strikeFactor : 1.0) * (1.0 - target.defense);
+                target.hp -= damage;
+                actor.dealt += damage;
+                target.taken += damage;
+                // 得点阈值与伤害同一量纲，一并缩放
+                double makePerPoint = rules.makeDamagePerPoint * rules.hitScale;
+                double getPerPoint = rules.getDamagePerPoint * rules.hitScale;
+                actor.points = earn(actor.points, actor.dealt, makePerPoint, rules.maxPoints);
+                actor.dealt %= makePerPoint;
+                target.points = earn(target.points, target.taken, getPerPoint, rules.maxPoints);
+                target.taken %= getPerPoint;
+                if (log != null) logState(log, states, target, target == a ? 0 : 1);
+
+                if (target.hp <= 0) {
+                    turns[0] = turn;
+                    return actor == a ? 0 : 1;
+                }
+            }
+            Fighter t = actor;
+            actor = target;
+            target = t;
+        }
+        turns[0] = rules.maxTurns;
+        return -1;
+    }
+
+    /** HP 比例跨过里程碑时记录状态变化与 portrait 切换；首次只记 portrait */
+    private static void logState(CombatLog log, PlayerStateResolver states, Fighter f, int subject) {
+        PlayerState now = states.resolve(f.hp, f.maxHp);
+        if (now == f.state) return;
+        if (f.state != null) log.stateChange(subject, f.state, now);
+        log.portraitSwitch(subject, now, f.positionId);
+        f.state = now;
+    }
+
+    private static int earn(int points, double accumulated, double perPoint, int maxPoints) {
+        return (int) Math.min(maxPoints, points + (long) (accumulated / perPoint));
+    }
+
+    private static double uniform(RandomGenerator random, double lo, double hi) {
+        return hi > lo ? lo + random.nextDouble() * (hi - lo) : lo;
+    }
+
+    private static RandomDamageManager strikeOf(Rules rules) {
+        StrikeSimulation.Params s = rules.strike;
+        // 只使用其无状态的 probabilityAt / stepFrom，可跨线程共享
+        return new RandomDamageManager(s.initialProbability(), s.stepBase(), s.randomFactor(),
+                s.highestStrikeProbability());
+    }
+
+    /* ---------------- 并行循环赛 ---------------- */
+
+    private record Shared(Rules rules, RandomDamageManager strike, double[] scaling, int[] pairs,
+                          int matchesPerPair, int size) {
+    }
+
+    private static final class Tally {
+        final long[] wins;
+        long draws;
+        long turns;
+
+        Tally(int size) {
+            wins = new long[size * size];
+        }
+
+        void add(Tally other) {
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+            }
+            draws += other.draws;
+            turns += other.turns;
+        }
+    }
+
+    private static final class TournamentTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final Shared shared;
+        private final SplittableGenerator random;
+        private final long lo;
+        private final long hi;
+
+        TournamentTask(Shared shared, SplittableGenerator random, long lo, long hi) {
+            this.shared = shared;
+            this.random = random;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (hi - lo > LEAF_MATCHES) {
+                long mid = (lo + hi) >>> 1;
+                TournamentTask right = new TournamentTask(shared, random.split(), mid, hi);
+                TournamentTask left = new TournamentTask(shared, random, lo, mid);
+                right.fork();
+                Tally tally = left.compute();
+                tally.add(right.join());
+                return tally;
+            }
+            Rules rules = shared.rules;
+            double[] scaling = shared.scaling;
+            int n = shared.size;
+            Tally tally = new Tally(n);
+            Fighter first = new Fighter(), second = new Fighter();
+            int[] turns = new int[1];
+            for (long m = lo; m < hi; m++) {
+                int pair = (int) (m / shared.matchesPerPair);
+                int i = shared.pairs[pair * 2], j = shared.pairs[pair * 2 + 1];
+                // 同一对角色轮流先手
+                if ((m % shared.matchesPerPair & 1) == 1) {
+                    int t = i;
+                    i = j;
+                    j = t;
+                }
+                first.bind(scaling[i * 3], scaling[i * 3 + 1], scaling[i * 3 + 2]);
+                second.bind(scaling[j * 3], scaling[j * 3 + 1], scaling[j * 3 + 2]);
+                int winner = play(rules, shared.strike, first, second, random.split(), turns, null, null);
+                if (winner == 0) tally.wins[i * n + j]++;
+                else if (winner == 1) tally.wins[j * n + i]++;
+                else tally.draws++;
+                tally.turns += turns[0];
+            }
+            return tally;
+        }
+    }
+}
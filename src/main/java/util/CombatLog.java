@@ -0,0 +1,310 @@
+package util;
+
+import model.PlayerState;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 战斗事件日志：生产者把定长二进制记录写入预分配的多生产者环形缓冲，
+ * 后台线程批量搬运到 logPath 下轮转的内存映射文件（combat-{序号}.bin），热路径不分配对象、不做 I/O。
+ * <p>
+ * 文件头 32 字节：[int MAGIC][int VERSION][long 墙钟毫秒][long 同一时刻的 nanoTime][long 保留]；
+ * 之后每条记录 32 字节：[long nanoTime][int 类型][int 主体][long a][long b]，未写到的部分为 0。
+ * 各类型 a / b 的含义见 {@link Type}；解码为 JSON lines 见 CombatLogDecoder。
+ * <p>
+ * positionId 是进程内驻留的编号，重启后不同。后台线程在每个文件里某个 positionId 第一次出现之前
+ * 先写一组 {@link Type#POSITION_NAME} 记录给出它的 position 名，文件可以脱离写入进程单独解码。
+ */
+public final class CombatLog implements Closeable {
+
+    static final int MAGIC = 0x5345434C; // "SECL"
+    static final int VERSION = 2;   // 2：增加 POSITION_NAME
+    static final int RECORD_BYTES = 32;
+    static final int HEADER_BYTES = 32;
+
+    /** 单个文件大小与保留的文件数 */
+    static final long FILE_BYTES = 8L << 20;
+    static final int MAX_FILES = 8;
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** 事件类型；编号写入文件，只能追加 */
+    public enum Type {
+        /** a = 判定概率（double 位模式），b = 1 暴击 / 0 未暴击 */
+        STRIKE_ROLL(1),
+        /** a = 原状态 ordinal，b = 新状态 ordinal */
+        STATE_CHANGE(2),
+        /** a = 状态 ordinal，b = positionId（本文件内由 POSITION_NAME 给出名字） */
+        PORTRAIT_SWITCH(3),
+        /**
+         * 只由后台线程写入：主体 = positionId，a、b 依次为 position 名 UTF-8 的 16 字节（不足补 0）；
+         * 名字更长时紧接着写同一主体的多条，按顺序拼接
+         */
+        POSITION_NAME(4);
+
+        final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        static Type of(int code) {
+            for (Type t : values()) {
+                if (t.code == code) return t;
+            }
+            return null;
+        }
+    }
+
+    /** 缓冲已满时的处理方式 */
+    public enum Overflow {
+        /** 丢弃新事件并计数 */
+        DROP,
+        /** 等待后台线程腾出空间 */
+        BLOCK
+    }
+
+    private final Path dir;
+    private final int capacity;
+    private final int mask;
+    private final Overflow overflow;
+
+    /* 环形缓冲：每个槽 4 个 long；published[i] == seq + 1 表示该槽已写完 */
+    private final long[] slots;
+    private final AtomicLongArray published;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+
+    private final LongAdder dropped = new LongAdder();
+    private final Thread drainer;
+    private volatile boolean closed;
+
+    /* 以下只由后台线程访问 */
+    private long fileSeq;
+    private MappedByteBuffer file;
+    private final BitSet named = new BitSet();   // 当前文件里已写过名字的 positionId
+
+    private CombatLog(Path dir, int capacity, Overflow overflow) throws IOException {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.dir = dir;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.overflow = overflow;
+        this.slots = new long[capacity * 4];
+        this.published = new AtomicLongArray(capacity);
+        Files.createDirectories(dir);
+        TreeMap<Long, Path> existing = list(dir);
+        this.fileSeq = existing.isEmpty() ? 0 : existing.lastKey();
+        rotate();
+        this.drainer = new Thread(this::drainLoop, "combat-log-" + dir.getFileName());
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    public static @NotNull CombatLog open(@NotNull Path dir, int capacity, @NotNull Overflow overflow) throws IOException {
+        return new CombatLog(dir, capacity, overflow);
+    }
+
+    /** 使用 GameConfig.logPath，默认容量，满时丢弃 */
+    public static @NotNull CombatLog open(@NotNull GameConfig config) throws IOException {
+        return open(Paths.get(config.logPath()), DEFAULT_CAPACITY, Overflow.DROP);
+    }
+
+    /* ---------------- 生产者 ---------------- */
+
+    public boolean strikeRoll(int subject, double probability, boolean strike) {
+        return append(Type.STRIKE_ROLL.code, subject, Double.doubleToRawLongBits(probability), strike ? 1 : 0);
+    }
+
+    public boolean stateChange(int subject, @NotNull PlayerState from, @NotNull PlayerState to) {
+        return append(Type.STATE_CHANGE.code, subject, from.ordinal(), to.ordinal());
+    }
+
+    public boolean portraitSwitch(int subject, @NotNull PlayerState state, int positionId) {
+        return append(Type.PORTRAIT_SWITCH.code, subject, state.ordinal(), positionId);
+    }
+
+    /** 已丢弃的事件数（DROP 策略或关闭后写入） */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 占一个槽并写入；DROP 策略下缓冲满时返回 false
+     */
+    private boolean append(int type, int subject, long a, long b) {
+        long seq;
+        while (true) {
+            if (closed) {
+                dropped.increment();
+                return false;
+            }
+            seq = head.get();
+            if (seq - tail >= capacity) {
+                if (overflow == Overflow.DROP) {
+                    dropped.increment();
+                    return false;
+                }
+                LockSupport.unpark(drainer);
+                Thread.yield();   // 让出 CPU 给后台线程，核数少时自旋只会更慢
+                continue;
+            }
+            if (head.compareAndSet(seq, seq + 1)) break;
+        }
+        int i = (int) (seq & mask);
+        int base = i << 2;
+        slots[base] = System.nanoTime();
+        slots[base + 1] = ((long) type << 32) | (subject & 0xFFFFFFFFL);
+        slots[base + 2] = a;
+        slots[base + 3] = b;
+        published.set(i, seq + 1);   // volatile 写，发布上面的普通写
+        return true;
+    }
+
+    /* ---------------- 后台线程 ---------------- */
+
+    /** 写完缓冲中已有的事件后停止，并把文件刷到磁盘 */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        while (true) {
+            int drained = drain();
+            if (drained == 0) {
+                // 先读 closed 再确认缓冲为空，避免漏掉关闭前最后发布的事件
+                if (closed && drain() == 0 && head.get() == tail) break;
+                LockSupport.parkNanos(1_000_000);
+            }
+        }
+        file.force();
+    }
+
+    private int drain() {
+        long t = tail;
+        int count = 0;
+        while (true) {
+            int i = (int) (t & mask);
+            if (published.get(i) != t + 1) break;
+            int base = i << 2;
+            int type = (int) (slots[base + 1] >>> 32);
+            int positionId = type == Type.PORTRAIT_SWITCH.code ? (int) slots[base + 3] : -1;
+            byte[] name = positionId >= 0 && !named.get(positionId) ? nameOf(positionId) : null;
+            int records = 1 + (name == null ? 0 : nameRecords(name));
+            if (file.remaining() < records * RECORD_BYTES) {
+                try {
+                    rotate();
+                } catch (IOException e) {
+                    // 无法换文件时丢弃，保证生产者不被卡住
+                    dropped.increment();
+                    t++;
+                    count++;
+                    tail = t;
+                    continue;
+                }
+            }
+            if (positionId >= 0 && !named.get(positionId)) {
+                if (name == null) name = nameOf(positionId);   // 刚换过文件
+                if (name != null) putName(slots[base], positionId, name);
+            }
+            put(slots[base], type, (int) slots[base + 1], slots[base + 2], slots[base + 3]);
+            t++;
+            count++;
+            if ((count & 1023) == 0) tail = t;   // 大批量时尽早释放空间
+        }
+        tail = t;
+        return count;
+    }
+
+    private void put(long nanos, int type, int subject, long a, long b) {
+        file.putLong(nanos);
+        file.putInt(type);
+        file.putInt(subject);
+        file.putLong(a);
+        file.putLong(b);
+    }
+
+    /** position 名的 UTF-8；id 未知时返回 null（只记 positionId） */
+    private static byte[] nameOf(int positionId) {
+        String name = PortraitLoader.positionName(positionId);
+        return name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int nameRecords(byte[] name) {
+        return Math.max(1, (name.length + 15) / 16);
+    }
+
+    private void putName(long nanos, int positionId, byte[] name) {
+        for (int r = 0, n = nameRecords(name); r < n; r++) {
+            put(nanos, Type.POSITION_NAME.code, positionId, pack(name, r * 16), pack(name, r * 16 + 8));
+        }
+        named.set(positionId);
+    }
+
+    /** name[from, from + 8) 按大端装入 long，越界部分为 0 */
+    private static long pack(byte[] name, int from) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            int k = from + i;
+            v = (v << 8) | (k < name.length ? name[k] & 0xFF : 0);
+        }
+        return v;
+    }
+
+    private void rotate() throws IOException {
+        if (file != null) file.force();
+        named.clear();
+        fileSeq++;
+        Path path = dir.resolve(String.format("combat-%016d.bin", fileSeq));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            file = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+        }
+        file.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis()).putLong(System.nanoTime()).putLong(0);
+        TreeMap<Long, Path> files = list(dir);
+        while (files.size() > MAX_FILES) {
+            Files.deleteIfExists(files.pollFirstEntry().getValue());
+        }
+    }
+
+    static TreeMap<Long, Path> list(Path dir) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "combat-*.bin")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    files.put(Long.parseLong(name.substring("combat-".length(), name.length() - ".bin".length())), file);
+                } catch (NumberFormatException ignore) {
+                    // 不是本类写出的文件
+                }
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,146 @@
+package util;
+
+import model.PlayerState;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 离线把 CombatLog 的二进制文件转换为 JSON lines，每条事件一行：
+ * {"time":墙钟毫秒,"nanos":nanoTime,"type":"STRIKE_ROLL","subject":0,...}。
+ * PORTRAIT_SWITCH 同时输出 positionId 与本文件 POSITION_NAME 记录给出的 position 名（版本 1 的文件没有名字）；
+ * POSITION_NAME 本身不单独输出。
+ * 用法：java util.CombatLogDecoder &lt;文件或目录&gt;...，输出到标准输出。
+ */
+public final class CombatLogDecoder {
+
+    private static final PlayerState[] STATES = PlayerState.values();
+
+    private CombatLogDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: CombatLogDecoder <file-or-directory>...");
+            System.exit(2);
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                for (Path file : CombatLog.list(path).values()) {
+                    decode(file, out);
+                }
+            } else {
+                decode(path, out);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * 解码一个文件，返回事件数；遇到全 0 记录（文件未写满的部分）即结束
+     */
+    public static long decode(@NotNull Path file, @NotNull Appendable out) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (in.remaining() < CombatLog.HEADER_BYTES || in.getInt() != CombatLog.MAGIC) {
+            throw new IOException("not a combat log: " + file);
+        }
+        int version = in.getInt();
+        if (version < 1 || version > CombatLog.VERSION) {
+            throw new IOException("unsupported combat log version " + version + ": " + file);
+        }
+        long epochMillis = in.getLong();
+        long nanoBase = in.getLong();
+        in.position(CombatLog.HEADER_BYTES);
+
+        long count = 0;
+        StringBuilder line = new StringBuilder(128);
+        Map<Integer, String> positions = new HashMap<>();
+        ByteArrayOutputStream name = new ByteArrayOutputStream(16);
+        int naming = -1;   // 正在拼接名字的 positionId
+        while (in.remaining() >= CombatLog.RECORD_BYTES) {
+            long nanos = in.getLong();
+            int code = in.getInt();
+            int subject = in.getInt();
+            long a = in.getLong();
+            long b = in.getLong();
+            if (code == 0) break;
+
+            CombatLog.Type type = CombatLog.Type.of(code);
+            if (type == CombatLog.Type.POSITION_NAME) {
+                if (subject != naming) name.reset();
+                naming = subject;
+                unpack(a, name);
+                unpack(b, name);
+                positions.put(subject, name.toString(StandardCharsets.UTF_8));
+                continue;
+            }
+            naming = -1;
+            line.setLength(0);
+            line.append("{\"time\":").append(epochMillis + Math.floorDiv(nanos - nanoBase, 1_000_000L))
+                    .append(",\"nanos\":").append(nanos)
+                    .append(",\"type\":\"").append(type == null ? "UNKNOWN_" + code : type.name()).append('"')
+                    .append(",\"subject\":").append(subject);
+            if (type == null) {
+                line.append(",\"a\":").append(a).append(",\"b\":").append(b);
+            } else {
+                switch (type) {
+                    case STRIKE_ROLL -> line.append(",\"probability\":").append(Double.longBitsToDouble(a))
+                            .append(",\"strike\":").append(b != 0);
+                    case STATE_CHANGE -> line.append(",\"from\":\"").append(state(a))
+                            .append("\",\"to\":\"").append(state(b)).append('"');
+                    case PORTRAIT_SWITCH -> {
+                        line.append(",\"state\":\"").append(state(a))
+                                .append("\",\"positionId\":").append(b);
+                        String position = positions.get((int) b);
+                        if (position != null) line.append(",\"position\":\"").append(escape(position)).append('"');
+                    }
+                    default -> line.append(",\"a\":").append(a).append(",\"b\":").append(b);
+                }
+            }
+            out.append(line).append('}').append('\n');
+            count++;
+        }
+        return count;
+    }
+
+    /** 大端取出 8 字节，跳过补位的 0 */
+    private static void unpack(long v, ByteArrayOutputStream out) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            int b = (int) (v >>> shift) & 0xFF;
+            if (b != 0) out.write(b);
+        }
+    }
+
+    private static String escape(String s) {
+        StringBuilder out = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') out.append('\\').append(c);
+            else if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+            else out.append(c);
+        }
+        return out.toString();
+    }
+
+    private static String state(long ordinal) {
+        return ordinal >= 0 && ordinal < STATES.length ? STATES[(int) ordinal].name() : String.valueOf(ordinal);
+    }
+}
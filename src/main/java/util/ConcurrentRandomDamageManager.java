@@ -0,0 +1,59 @@
+package util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 可在多个线程间共享的 RandomDamageManager：
+ * 当前概率以 double 位模式存放在 AtomicLong 中。每次判定只掷一次骰子：
+ * 基于读到的概率决定结果并预先取好步长扰动，再用 CAS 循环把该结果对应的转移
+ * 应用到最新状态上（暴击复位，否则从最新概率增长一步）。冲突时只重做转移、不重新判定，
+ * 判定结果的分布不受竞争影响；不丢失更新、不加锁。
+ */
+public class ConcurrentRandomDamageManager extends RandomDamageManager {
+
+    private final AtomicLong currentBits;
+
+    public ConcurrentRandomDamageManager(double initialProbability,
+                                         double stepBase,
+                                         double randomFactor,
+                                         double highestStrikeProbability) {
+        super(initialProbability, stepBase, randomFactor, highestStrikeProbability);
+        this.currentBits = new AtomicLong(Double.doubleToRawLongBits(initialProbability));
+    }
+
+    @Override
+    public double getProbability() {
+        return probabilityAt(current(), ThreadLocalRandom.current());
+    }
+
+    @Override
+    public boolean isStrike() {
+        return roll(true);
+    }
+
+    @Override
+    boolean isStrikeUncounted() {
+        return roll(false);
+    }
+
+    private boolean roll(boolean counted) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double p = probabilityAt(current(), random);
+        boolean strike = random.nextDouble() < p;
+        if (strike) {
+            currentBits.set(Double.doubleToRawLongBits(initialProbability()));
+        } else {
+            double noise = noise(random);
+            currentBits.updateAndGet(bits ->
+                    Double.doubleToRawLongBits(stepWith(Double.longBitsToDouble(bits), noise)));
+        }
+        if (counted) Metrics.strike(p, strike);
+        return strike;
+    }
+
+    /** 当前（未加扰动的）概率 */
+    public double current() {
+        return Double.longBitsToDouble(currentBits.get());
+    }
+}
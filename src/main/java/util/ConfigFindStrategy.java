@@ -1,6 +1,7 @@
 package util;
 
 import java.nio.file.Path;
+import java.util.List;
 
 public interface ConfigFindStrategy {
     /** 首选路径（通常放在某个子目录） */
@@ -16,4 +17,17 @@ public interface ConfigFindStrategy {
     default String fileName() {
         return preferredPath().getFileName().toString();
     }
-}
\ No newline at end of file
+
+    /** 递归搜索的最大深度（searchRoot 自身为 0） */
+    default int maxDepth() {
+        return 8;
+    }
+
+    /**
+     * 递归搜索时跳过的目录 glob，
+     * 同时匹配目录名与相对 searchRoot 的路径
+     */
+    default List<String> ignoreGlobs() {
+        return List.of(".*", "node_modules", "target", "save", "log", "assets");
+    }
+}
@@ -0,0 +1,158 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 配置文件搜索引擎：单趟、按层广度优先、ForkJoin 并行。
+ * 每层的目录拆分给多个任务并行列举，命中后其余任务立即放弃，
+ * 不再进入下一层；受 maxDepth 与 ignoreGlobs 约束。
+ */
+public final class ConfigSearcher {
+
+    /** 每个叶子任务顺序处理的目录数 */
+    private static final int DIRS_PER_TASK = 4;
+
+    private static final ForkJoinPool POOL =
+            new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    private ConfigSearcher() {
+    }
+
+    /** 按策略声明的 searchRoot / fileName / maxDepth / ignoreGlobs 搜索 */
+    public static @Nullable Path search(@NotNull ConfigFindStrategy strategy) {
+        return search(strategy.searchRoot(), strategy.fileName(),
+                strategy.maxDepth(), strategy.ignoreGlobs());
+    }
+
+    /**
+     * 在 root 下搜索名为 fileName 的普通文件，返回深度最浅的命中；
+     * 同层多个命中时返回其中任一。未找到返回 null
+     */
+    public static @Nullable Path search(@NotNull Path root,
+                                        @NotNull String fileName,
+                                        int maxDepth,
+                                        @NotNull List<String> ignoreGlobs) {
+        if (!Files.isDirectory(root)) return null;
+
+        Search search = new Search(root, fileName, compile(root, ignoreGlobs));
+        List<Path> level = List.of(root);
+        for (int depth = 0; depth <= maxDepth && !level.isEmpty(); depth++) {
+            List<Path> next = POOL.invoke(new LevelTask(search, level, 0, level.size(), depth < maxDepth));
+            Path hit = search.found.get();
+            if (hit != null) return hit;
+            level = next;
+        }
+        return null;
+    }
+
+    private static List<PathMatcher> compile(Path root, List<String> globs) {
+        List<PathMatcher> matchers = new ArrayList<>(globs.size());
+        for (String glob : globs) {
+            matchers.add(root.getFileSystem().getPathMatcher("glob:" + glob));
+        }
+        return matchers;
+    }
+
+    /* ---------------- 单次搜索的共享状态 ---------------- */
+
+    private static final class Search {
+        final Path root;
+        final String fileName;
+        final List<PathMatcher> ignores;
+        final AtomicReference<Path> found = new AtomicReference<>();
+
+        Search(Path root, String fileName, List<PathMatcher> ignores) {
+            this.root = root;
+            this.fileName = fileName;
+            this.ignores = ignores;
+        }
+
+        boolean cancelled() {
+            return found.get() != null;
+        }
+
+        boolean ignored(Path dir) {
+            if (ignores.isEmpty()) return false;
+            Path name = dir.getFileName();
+            Path relative = root.relativize(dir);
+            for (PathMatcher m : ignores) {
+                if (m.matches(name) || m.matches(relative)) return true;
+            }
+            return false;
+        }
+    }
+
+    /* ---------------- 处理一层目录的 [from, to) 区间，返回下一层目录 ---------------- */
+
+    private static final class LevelTask extends RecursiveTask<List<Path>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final List<Path> dirs;
+        private final int from;
+        private final int to;
+        private final boolean descend;
+
+        LevelTask(Search search, List<Path> dirs, int from, int to, boolean descend) {
+            this.search = search;
+            this.dirs = dirs;
+            this.from = from;
+            this.to = to;
+            this.descend = descend;
+        }
+
+        @Override
+        protected List<Path> compute() {
+            if (search.cancelled()) return List.of();
+
+            if (to - from > DIRS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                LevelTask left = new LevelTask(search, dirs, from, mid, descend);
+                left.fork();
+                List<Path> right = new LevelTask(search, dirs, mid, to, descend).compute();
+                List<Path> merged = new ArrayList<>(left.join());
+                merged.addAll(right);
+                return merged;
+            }
+
+            List<Path> next = new ArrayList<>();
+            for (int i = from; i < to && !search.cancelled(); i++) {
+                scan(dirs.get(i), next);
+            }
+            return next;
+        }
+
+        private void scan(Path dir, List<Path> next) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    if (search.cancelled()) return;
+                    if (entry.getFileName().toString().equals(search.fileName)
+                            && Files.isRegularFile(entry)) {
+                        search.found.compareAndSet(null, entry);
+                        return;
+                    }
+                    if (descend && Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)
+                            && !search.ignored(entry)) {
+                        next.add(entry);
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException ignore) {
+                // 无权限或已被删除的目录直接跳过（迭代中途出错时已收集的子目录照常保留）
+            }
+        }
+    }
+}
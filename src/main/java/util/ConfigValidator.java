@@ -1,12 +1,29 @@
 package util;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class ConfigValidator {
     private final AbstractValidationStrategy validationStrategy;
+    private final ValidationCache cache;
 
+    /** 使用共享的持久化校验缓存 */
     public ConfigValidator(AbstractValidationStrategy strategy) {
+        this(strategy, ValidationCache.shared());
+    }
+
+    /** cache 为 null 时每次都完整校验 */
+    public ConfigValidator(AbstractValidationStrategy strategy, @Nullable ValidationCache cache) {
         this.validationStrategy = strategy;
+        this.cache = cache;
     }
 
     public AbstractValidationStrategy getValidationStrategy() {
@@ -14,6 +31,78 @@ public class ConfigValidator {
     }
 
     public boolean validate(Path path) {
-        return validationStrategy.validate(path);
+        return check(path).selectable();
+    }
+
+    /** 未变化的文件直接取缓存结果；缓存变更延迟合并落盘 */
+    public FilterResult check(Path path) {
+        FilterResult result = cachedCheck(path);
+        if (cache != null) cache.flushLater();
+        return result;
+    }
+
+    /**
+     * 并行校验目录下全部 *.json（不递归），在共享有界执行器上运行。
+     * 每个文件完成时立即以 onResult 回调（回调串行执行，无需线程安全；回调抛出的异常被忽略），
+     * 全部完成后返回的 future 给出按文件名排序的汇总与耗时
+     */
+    public CompletableFuture<BatchReport> validateDirectory(Path dir, Consumer<BatchReport.Timed> onResult)
+            throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) files.add(file);
+            }
+        }
+        files.sort(null);
+
+        long start = System.nanoTime();
+        Object callbackLock = new Object();
+        List<CompletableFuture<BatchReport.Timed>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                BatchReport.Timed timed = timedCheck(file);
+                synchronized (callbackLock) {
+                    try {
+                        onResult.accept(timed);
+                    } catch (RuntimeException ignore) {
+                        // 回调出错只影响该回调本身，不影响该文件的结果与整批汇总
+                    }
+                }
+                return timed;
+            }, BatchExecutor.shared()));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> {
+                    List<BatchReport.Timed> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<BatchReport.Timed> f : futures) {
+                        results.add(f.join());
+                    }
+                    if (cache != null) cache.flushLater();
+                    return new BatchReport(List.copyOf(results), System.nanoTime() - start);
+                });
+    }
+
+    /** 同上，不需要逐个回调 */
+    public CompletableFuture<BatchReport> validateDirectory(Path dir) throws IOException {
+        return validateDirectory(dir, t -> { });
+    }
+
+    private FilterResult cachedCheck(Path path) {
+        return cache == null
+                ? validationStrategy.check(path)
+                : cache.check(validationStrategy.cacheKey(), path, validationStrategy::check);
+    }
+
+    private BatchReport.Timed timedCheck(Path file) {
+        long t0 = System.nanoTime();
+        FilterResult result;
+        try {
+            result = cachedCheck(file);
+        } catch (RuntimeException e) {
+            result = FilterResult.reject(file, List.of("validation failed: " + e));
+        }
+        return new BatchReport.Timed(result, System.nanoTime() - t0);
     }
-}
\ No newline at end of file
+}
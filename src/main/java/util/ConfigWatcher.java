@@ -0,0 +1,222 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享的配置文件监听：每个目录一个 WatchService + 一个守护线程。
+ * 同一文件在 DEBOUNCE_MILLIS 内的多次事件合并为一次回调，
+ * 回调只针对发生变化的那个文件，在监听线程上执行。
+ * 目录被删除或不可再监听时，该目录的监听退出并从共享表中移除，每个句柄的 onRetire 各被回调一次，
+ * 句柄随之进入 {@link Handle#retired()} 状态、不再收到事件；之后对同一目录的 watch 会重新注册。
+ */
+public final class ConfigWatcher {
+
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    /** 目录（绝对、规范化）→ 监听 */
+    private static final Map<Path, DirectoryWatch> WATCHES = new HashMap<>();
+
+    private ConfigWatcher() {
+    }
+
+    /** watch 的句柄：close 取消监听；目录监听失效后 retired() 为 true，需重新 watch */
+    public interface Handle extends Closeable {
+        boolean retired();
+
+        @Override
+        void close();
+    }
+
+    /** 同 {@link #watch(Path, Runnable, Runnable)}，监听失效时也调用 onChange 一次 */
+    public static @NotNull Handle watch(@NotNull Path file, @NotNull Runnable onChange) throws IOException {
+        return watch(file, onChange, onChange);
+    }
+
+    /**
+     * 监听单个文件，文件被创建/修改后（去抖）调用 onChange；目录监听失效时调用 onRetire 一次。
+     * 返回的句柄 close 后取消监听；目录下无监听者时线程随之退出
+     */
+    public static @NotNull Handle watch(@NotNull Path file, @NotNull Runnable onChange,
+                                        @NotNull Runnable onRetire) throws IOException {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path dir = absolute.getParent();
+        Registration registration = new Registration(absolute.getFileName(), onChange, onRetire);
+        synchronized (WATCHES) {
+            DirectoryWatch watch = WATCHES.get(dir);
+            if (watch == null) {
+                watch = new DirectoryWatch(dir);
+                WATCHES.put(dir, watch);
+            }
+            registration.owner = watch;
+            watch.add(registration);
+        }
+        return registration;
+    }
+
+    private static final class Registration implements Handle {
+        final Path name;
+        final Runnable onChange;
+        final Runnable onRetire;
+        DirectoryWatch owner;           // 由 WATCHES 锁保护
+        volatile boolean retired;
+
+        Registration(Path name, Runnable onChange, Runnable onRetire) {
+            this.name = name;
+            this.onChange = onChange;
+            this.onRetire = onRetire;
+        }
+
+        @Override
+        public boolean retired() {
+            return retired;
+        }
+
+        @Override
+        public void close() {
+            synchronized (WATCHES) {
+                if (owner != null && owner.remove(this)) {
+                    WATCHES.remove(owner.dir, owner);
+                    owner.close();
+                }
+                owner = null;
+            }
+        }
+    }
+
+    /* ---------------- 单目录监听 ---------------- */
+
+    private static final class DirectoryWatch implements Runnable {
+        private final Path dir;
+        private final WatchService service;
+        private final Map<Path, List<Registration>> listeners = new ConcurrentHashMap<>();
+
+        DirectoryWatch(Path dir) throws IOException {
+            this.dir = dir;
+            this.service = FileSystems.getDefault().newWatchService();
+            dir.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            Thread t = new Thread(this, "config-watch-" + dir.getFileName());
+            t.setDaemon(true);
+            t.start();
+        }
+
+        void add(Registration registration) {
+            listeners.computeIfAbsent(registration.name, k -> new CopyOnWriteArrayList<>()).add(registration);
+        }
+
+        /** 移除监听者，返回该目录是否已无任何监听者 */
+        boolean remove(Registration registration) {
+            List<Registration> list = listeners.get(registration.name);
+            if (list != null) {
+                list.remove(registration);
+                if (list.isEmpty()) listeners.remove(registration.name);
+            }
+            return listeners.isEmpty();
+        }
+
+        void close() {
+            try {
+                service.close();
+            } catch (IOException ignore) {
+            }
+        }
+
+        @Override
+        public void run() {
+            // 文件名 → 最早可触发回调的时间
+            Map<Path, Long> pending = new HashMap<>();
+            try {
+                while (true) {
+                    WatchKey key = pending.isEmpty()
+                            ? service.take()
+                            : service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                    long now = System.nanoTime();
+                    if (key != null) {
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                                listeners.keySet().forEach(n -> pending.put(n, now + debounceNanos()));
+                                continue;
+                            }
+                            Path name = (Path) event.context();
+                            if (listeners.containsKey(name)) {
+                                pending.put(name, now + debounceNanos());
+                            }
+                        }
+                        if (!key.reset()) {
+                            retire();
+                            return;
+                        }
+                    }
+                    fireDue(pending, now);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // 关闭即退出
+            }
+        }
+
+        /** key 已失效（目录被删除等）：移出共享表，各句柄标记为失效后回调 onRetire */
+        private void retire() {
+            List<Registration> retiring = new ArrayList<>();
+            synchronized (WATCHES) {
+                WATCHES.remove(dir, this);
+                for (List<Registration> list : listeners.values()) {
+                    for (Registration r : list) {
+                        r.retired = true;
+                        r.owner = null;
+                        retiring.add(r);
+                    }
+                }
+                listeners.clear();
+            }
+            close();
+            // 在锁外回调：onRetire 通常会重新 watch
+            for (Registration r : retiring) {
+                try {
+                    r.onRetire.run();
+                } catch (RuntimeException ignore) {
+                    // 同 fireDue
+                }
+            }
+        }
+
+        private void fireDue(Map<Path, Long> pending, long now) {
+            var it = pending.entrySet().iterator();
+            while (it.hasNext()) {
+                var e = it.next();
+                if (e.getValue() - now > 0) continue;
+                it.remove();
+                List<Registration> list = listeners.get(e.getKey());
+                if (list == null) continue;
+                for (Registration r : list) {
+                    try {
+                        r.onChange.run();
+                    } catch (RuntimeException ignore) {
+                        // 单个监听者失败不影响其他监听者与监听线程
+                    }
+                }
+            }
+        }
+
+        private static long debounceNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MILLIS);
+        }
+    }
+}
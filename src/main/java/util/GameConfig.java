@@ -2,8 +2,12 @@ package util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.jetbrains.annotations.NotNull;
+
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 
 public record GameConfig(
@@ -36,4 +40,14 @@ public record GameConfig(
     public static GameConfig load(Path file) throws IOException {
         return MAPPER.readValue(file.toFile(), GameConfig.class);
     }
+
+    /** 字体文件路径（与 charactersPath 等一样相对工作目录） */
+    public @NotNull Path fontPath() {
+        return Paths.get(font);
+    }
+
+    /** 字体文件内容，经资源缓存读取，只读视图 */
+    public @NotNull ByteBuffer fontBytes(@NotNull AssetCache cache) {
+        return cache.get(fontPath());
+    }
 }
@@ -1,10 +1,281 @@
 package util;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.Character;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * 启动流水线：各阶段按依赖关系组合成 CompletableFuture，在有界执行器上并发执行。
+ * <pre>
+ * locateSetup -> validateSetup -> bindConfig -+-> scanCharacters -> character:{文件名}（每个角色一个，并行）
+ *                                             +-> scanSkills
+ * </pre>
+ * 角色与技能目录的校验互不等待；每个角色的 JSON 与 portrait 配置解析各自独立。
+ * 按需加载模式下 scanCharacters 与各角色阶段换成一个 openRoster 阶段（见 {@link CharacterRoster}），
+ * 启动只读名册索引，角色在选中时才加载。
+ * 结果中给出每个阶段的起止时间与关键路径，冷启动耗时由最慢的一条依赖链决定，而不是各阶段之和。
+ */
 public class GameConfigLoader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * 一个阶段的时间线，均为相对流水线开始的纳秒。
+     * waitNanos 为依赖全部完成到本阶段开始运行之间的排队时间；
+     * criticalPath 从第一个阶段开始，沿最晚完成的依赖一路到本阶段
+     */
+    public record StageTiming(String name, List<String> dependsOn, long startNanos, long endNanos,
+                              long waitNanos, List<String> criticalPath) {
+        public long busyNanos() {
+            return endNanos - startNanos;
+        }
+    }
+
+    /**
+     * 启动结果：不合法或 portrait 缺失的角色在 rejected 中，不进入名册。
+     * 按需加载模式下 characters 与 rejected 为空，roster 非 null
+     */
+    public record Result(Path setupFile, GameConfig config, List<Character> characters,
+                         List<FilterResult> rejected, @Nullable CharacterRoster roster, BatchReport skills,
+                         List<StageTiming> stages, long wallNanos) {
+
+        /** 最晚结束的阶段所在的依赖链，即决定冷启动耗时的那一条 */
+        public @NotNull List<String> criticalPath() {
+            return stages.stream().max(Comparator.comparingLong(StageTiming::endNanos))
+                    .map(StageTiming::criticalPath).orElse(List.of());
+        }
+
+        /** 各阶段运行时间之和（与 wallNanos 之比约为实际并行度） */
+        public long totalBusyNanos() {
+            return stages.stream().mapToLong(StageTiming::busyNanos).sum();
+        }
+
+        /** 逐阶段的时间线文本，按开始时间排序 */
+        public @NotNull String report() {
+            StringBuilder out = new StringBuilder(128 + stages.size() * 96);
+            out.append(String.format("%-32s %9s %9s %9s %9s  %s%n", "stage", "start ms", "end ms", "busy ms", "wait ms", "critical path"));
+            for (StageTiming s : stages) {
+                out.append(String.format("%-32s %9.2f %9.2f %9.2f %9.2f  %s%n", s.name(),
+                        s.startNanos() / 1e6, s.endNanos() / 1e6, s.busyNanos() / 1e6, s.waitNanos() / 1e6,
+                        String.join(" -> ", s.criticalPath())));
+            }
+            out.append(String.format("wall %.2f ms, busy %.2f ms, critical path %s%n",
+                    wallNanos / 1e6, totalBusyNanos() / 1e6, String.join(" -> ", criticalPath())));
+            return out.toString();
+        }
+    }
+
     private final ConfigValidator configValidator;
+    private final ConfigFindStrategy setupStrategy;
+    private final Executor executor;
+    private final boolean lazyCharacters;
 
+    public GameConfigLoader() {
+        this(new ConfigValidator(new GameSetUpValidationStrategy()));
+    }
+
+    /** configValidator 校验 GameSetUp.json；查找策略与执行器取默认值 */
     public GameConfigLoader(ConfigValidator configValidator) {
+        this(configValidator, new GameSetupFindStrategy(), BatchExecutor.shared());
+    }
+
+    public GameConfigLoader(@NotNull ConfigValidator configValidator,
+                            @NotNull ConfigFindStrategy setupStrategy,
+                            @NotNull Executor executor) {
+        this(configValidator, setupStrategy, executor, false);
+    }
+
+    /** lazyCharacters 为 true 时启动只打开角色名册索引，不加载任何角色 */
+    public GameConfigLoader(@NotNull ConfigValidator configValidator,
+                            @NotNull ConfigFindStrategy setupStrategy,
+                            @NotNull Executor executor,
+                            boolean lazyCharacters) {
         this.configValidator = configValidator;
+        this.setupStrategy = setupStrategy;
+        this.executor = executor;
+        this.lazyCharacters = lazyCharacters;
+    }
+
+    /** 同步版本：GameSetUp.json 找不到、不合法或无法绑定时抛 IOException */
+    public @NotNull Result load() throws IOException {
+        try {
+            return loadAsync().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
     }
 
+    public @NotNull CompletableFuture<Result> loadAsync() {
+        Run run = new Run();
+
+        CompletableFuture<Path> located = run.stage("locateSetup", List.of(),
+                () -> ConfigFinder.locate(setupStrategy));
+        CompletableFuture<Path> validated = located.thenCompose(file -> run.stage("validateSetup", List.of("locateSetup"), () -> {
+            FilterResult result = configValidator.check(file);
+            if (!result.selectable()) {
+                throw new IOException("Invalid game setup " + file + ": " + result.reasons());
+            }
+            return file;
+        }));
+        CompletableFuture<GameConfig> config = validated.thenCompose(file -> run.stage("bindConfig", List.of("validateSetup"),
+                () -> GameConfig.load(file)));
+        // 字体与角色 portrait 在后台读入资源缓存，不计入启动阶段，也不等待
+        config.thenAccept(c -> AssetCache.shared().prefetch(c.fontPath()));
+
+        // 技能目录只依赖 config，与角色并行
+        CompletableFuture<BatchReport> skills = config.thenCompose(c -> run.stageAsync("scanSkills", List.of("bindConfig"),
+                () -> scan(new ConfigValidator(new SkillValidationStrategy()), Paths.get(c.skillsPath()))));
+
+        if (lazyCharacters) {
+            CompletableFuture<CharacterRoster> roster = config.thenCompose(c -> run.stageAsync("openRoster", List.of("bindConfig"),
+                    () -> CharacterRoster.openAsync(c)));
+            return roster.thenCombine(skills, (r, skillReport) -> new Result(located.join(), config.join(),
+                    List.of(), List.of(), r, skillReport, run.timeline(), System.nanoTime() - run.origin))
+                    .whenComplete((r, e) -> Metrics.STARTUP.stop(run.origin));
+        }
+
+        CompletableFuture<BatchReport> characterFiles = config.thenCompose(c -> run.stageAsync("scanCharacters", List.of("bindConfig"),
+                () -> scan(new ConfigValidator(new CharacterValidationStrategy(c)), Paths.get(c.charactersPath()))));
+
+        // 每个合法的角色文件一个阶段，JSON 与 portrait 配置并行解析
+        CompletableFuture<List<Loaded>> characters = characterFiles.thenCompose(report -> {
+            List<CompletableFuture<Loaded>> futures = new ArrayList<>();
+            for (BatchReport.Timed timed : report.results()) {
+                FilterResult result = timed.result();
+                if (!result.selectable()) {
+                    futures.add(CompletableFuture.completedFuture(new Loaded(null, result)));
+                    continue;
+                }
+                futures.add(run.stage("character:" + result.file().getFileName(), List.of("scanCharacters"),
+                        () -> readCharacter(result.file())));
+            }
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(v -> futures.stream().map(CompletableFuture::join).toList());
+        });
+
+        return characters.thenCombine(skills, (loaded, skillReport) -> {
+            List<Character> roster = new ArrayList<>(loaded.size());
+            List<FilterResult> rejected = new ArrayList<>();
+            for (Loaded l : loaded) {
+                if (l.character() != null) {
+                    roster.add(l.character());
+                    l.character().preloadPortraits(AssetCache.shared());
+                } else {
+                    rejected.add(l.rejection());
+                }
+            }
+            return new Result(located.join(), config.join(), List.copyOf(roster), List.copyOf(rejected), null,
+                    skillReport, run.timeline(), System.nanoTime() - run.origin);
+        }).whenComplete((r, e) -> Metrics.STARTUP.stop(run.origin));
+    }
+
+    /* ---------------- 各阶段 ---------------- */
+
+    /** 一个角色文件的解析结果：character 与 rejection 恰有一个非 null */
+    private record Loaded(@Nullable Character character, @Nullable FilterResult rejection) {
+    }
+
+    /** 目录不存在时视为空 */
+    private static CompletableFuture<BatchReport> scan(ConfigValidator validator, Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return CompletableFuture.completedFuture(new BatchReport(List.of(), 0));
+        }
+        return validator.validateDirectory(dir);
+    }
+
+    /** 读角色 JSON 并构造 Character（构造时解析 portrait 配置）；portrait 缺失或非法时角色不可选 */
+    private static Loaded readCharacter(Path file) throws IOException {
+        JsonNode n = MAPPER.readTree(file.toFile());
+        Path portraitPath = file.toAbsolutePath().getParent().resolve(n.get("portraitPath").asText()).normalize();
+        try {
+            return new Loaded(new Character(
+                    n.get("id").asText(), n.get("name").asText(), n.get("desc").asText(),
+                    n.get("hpScalingFactor").doubleValue(),
+                    n.get("defenseScalingFactor").doubleValue(),
+                    n.get("attackScalingFactor").doubleValue(),
+                    portraitPath, n.get("position").asText()), null);
+        } catch (RuntimeException e) {
+            return new Loaded(null, FilterResult.reject(file, List.of("portrait config " + portraitPath + ": " + e.getMessage())));
+        }
+    }
+
+    /* ---------------- 计时 ---------------- */
+
+    /** 一次流水线运行：记录各阶段的起止时间，结束后计算等待时间与关键路径 */
+    private final class Run {
+        private record Span(String name, List<String> dependsOn, long start, long end) {
+        }
+
+        final long origin = System.nanoTime();
+        private final ConcurrentLinkedQueue<Span> spans = new ConcurrentLinkedQueue<>();
+
+        /** 在执行器上运行 body */
+        <T> CompletableFuture<T> stage(String name, List<String> dependsOn, Callable<T> body) {
+            return stageAsync(name, dependsOn, () -> CompletableFuture.completedFuture(body.call()));
+        }
+
+        /** body 在执行器上发起，可以自己再派生异步工作（如目录批量校验）；计时到返回的 future 完成为止 */
+        <T> CompletableFuture<T> stageAsync(String name, List<String> dependsOn, Callable<CompletableFuture<T>> body) {
+            CompletableFuture<T> done = new CompletableFuture<>();
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                CompletableFuture<T> work;
+                try {
+                    work = body.call();
+                } catch (Exception e) {
+                    work = CompletableFuture.failedFuture(e);
+                }
+                work.whenComplete((value, error) -> {
+                    // 先记录再完成，下游看到结果时本阶段的时间线已就绪
+                    spans.add(new Span(name, dependsOn, start - origin, System.nanoTime() - origin));
+                    if (error != null) done.completeExceptionally(error);
+                    else done.complete(value);
+                });
+            });
+            return done;
+        }
+
+        List<StageTiming> timeline() {
+            Map<String, Span> byName = new HashMap<>();
+            for (Span s : spans) byName.put(s.name(), s);
+            List<Span> ordered = new ArrayList<>(byName.values());
+            ordered.sort(Comparator.comparingLong(Span::start).thenComparing(Span::name));
+
+            Map<String, List<String>> paths = new HashMap<>();
+            List<StageTiming> timeline = new ArrayList<>(ordered.size());
+            for (Span s : ordered) {
+                Span last = null;
+                for (String dep : s.dependsOn()) {
+                    Span d = byName.get(dep);
+                    if (d != null && (last == null || d.end() > last.end())) last = d;
+                }
+                List<String> path = new ArrayList<>(last == null ? List.of() : paths.get(last.name()));
+                path.add(s.name());
+                paths.put(s.name(), List.copyOf(path));
+                long ready = last == null ? 0 : last.end();
+                timeline.add(new StageTiming(s.name(), s.dependsOn(), s.start(), s.end(),
+                        Math.max(0, s.start() - ready), paths.get(s.name())));
+            }
+            return List.copyOf(timeline);
+        }
+    }
 }
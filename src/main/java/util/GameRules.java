@@ -0,0 +1,148 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * GameConfig 数值部分的运行期视图：两元素区间展开为 min / max 基本类型字段，
+ * 里程碑为 double[]，热路径读取时无拆箱、无 List.get 边界检查。
+ * <p>
+ * 不提供全局实例：配置可热重载（ReloadableGameConfig），调用方从当前 GameConfig 用 {@link #of} 构造并自行持有。
+ * 里程碑数组按内容参与 equals / hashCode / toString。
+ */
+public record GameRules(
+        double scalingFactorMin, double scalingFactorMax,
+        int totalScalingFactorLimitation,
+        int initialSkillPoint,
+        int skillCostMin, int skillCostMax,
+        int playerSkillPointMin, int playerSkillPointMax,
+        int carriedHpMin, int carriedHpMax,
+        double carriedDefenseMin, double carriedDefenseMax,
+        int damageMin, int damageMax,
+        int recoveryMin, int recoveryMax,
+        int getDamageToGetPoint,
+        int makeDamageToGetPoint,
+        int carriedSkillsNumber,
+        double[] milestones,
+        double initialStrikeProbability,
+        double strikeStepBase,
+        double randomFactorLimitation,
+        double highestStrikeProbability,
+        double strikeFactor
+) {
+
+    public GameRules {
+        milestones = milestones.clone();
+    }
+
+    public static @NotNull GameRules of(@NotNull GameConfig c) {
+        return new GameRules(
+                c.scalingFactorRegion().get(0), c.scalingFactorRegion().get(1),
+                c.totalScalingFactorLimitation(),
+                c.initialSkillPoint(),
+                c.skillCostRegion().get(0), c.skillCostRegion().get(1),
+                c.playerSkillPointRegion().get(0), c.playerSkillPointRegion().get(1),
+                c.carriedHpRegion().get(0), c.carriedHpRegion().get(1),
+                c.carriedDefenseRegion().get(0), c.carriedDefenseRegion().get(1),
+                c.damageRegion().get(0), c.damageRegion().get(1),
+                c.recoveryRegion().get(0), c.recoveryRegion().get(1),
+                c.getDamageToGetPoint(),
+                c.makeDamageToGetPoint(),
+                c.carriedSkillsNumber(),
+                toArray(c.portraitsTransferMilestone()),
+                c.initialStrikeProbability(),
+                c.strikeStepBase(),
+                c.randomFactorLimitation(),
+                c.highestStrikeProbability(),
+                c.strikeFactor());
+    }
+
+    /* ---------- 访问 ---------- */
+
+    /** 里程碑副本；热路径请用 {@link #milestone(int)} */
+    @Override
+    public double[] milestones() {
+        return milestones.clone();
+    }
+
+    public int milestoneCount() {
+        return milestones.length;
+    }
+
+    public double milestone(int i) {
+        return milestones[i];
+    }
+
+    /* ---------- 里程碑按内容比较 ---------- */
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof GameRules r
+                && Double.compare(scalingFactorMin, r.scalingFactorMin) == 0
+                && Double.compare(scalingFactorMax, r.scalingFactorMax) == 0
+                && totalScalingFactorLimitation == r.totalScalingFactorLimitation
+                && initialSkillPoint == r.initialSkillPoint
+                && skillCostMin == r.skillCostMin && skillCostMax == r.skillCostMax
+                && playerSkillPointMin == r.playerSkillPointMin && playerSkillPointMax == r.playerSkillPointMax
+                && carriedHpMin == r.carriedHpMin && carriedHpMax == r.carriedHpMax
+                && Double.compare(carriedDefenseMin, r.carriedDefenseMin) == 0
+                && Double.compare(carriedDefenseMax, r.carriedDefenseMax) == 0
+                && damageMin == r.damageMin && damageMax == r.damageMax
+                && recoveryMin == r.recoveryMin && recoveryMax == r.recoveryMax
+                && getDamageToGetPoint == r.getDamageToGetPoint
+                && makeDamageToGetPoint == r.makeDamageToGetPoint
+                && carriedSkillsNumber == r.carriedSkillsNumber
+                && Arrays.equals(milestones, r.milestones)
+                && Double.compare(initialStrikeProbability, r.initialStrikeProbability) == 0
+                && Double.compare(strikeStepBase, r.strikeStepBase) == 0
+                && Double.compare(randomFactorLimitation, r.randomFactorLimitation) == 0
+                && Double.compare(highestStrikeProbability, r.highestStrikeProbability) == 0
+                && Double.compare(strikeFactor, r.strikeFactor) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = Arrays.hashCode(new double[]{
+                scalingFactorMin, scalingFactorMax, carriedDefenseMin, carriedDefenseMax,
+                initialStrikeProbability, strikeStepBase, randomFactorLimitation,
+                highestStrikeProbability, strikeFactor});
+        h = 31 * h + Arrays.hashCode(new int[]{
+                totalScalingFactorLimitation, initialSkillPoint, skillCostMin, skillCostMax,
+                playerSkillPointMin, playerSkillPointMax, carriedHpMin, carriedHpMax,
+                damageMin, damageMax, recoveryMin, recoveryMax,
+                getDamageToGetPoint, makeDamageToGetPoint, carriedSkillsNumber});
+        return 31 * h + Arrays.hashCode(milestones);
+    }
+
+    @Override
+    public String toString() {
+        return "GameRules[scalingFactor=" + scalingFactorMin + ".." + scalingFactorMax
+                + ", totalScalingFactorLimitation=" + totalScalingFactorLimitation
+                + ", initialSkillPoint=" + initialSkillPoint
+                + ", skillCost=" + skillCostMin + ".." + skillCostMax
+                + ", playerSkillPoint=" + playerSkillPointMin + ".." + playerSkillPointMax
+                + ", carriedHp=" + carriedHpMin + ".." + carriedHpMax
+                + ", carriedDefense=" + carriedDefenseMin + ".." + carriedDefenseMax
+                + ", damage=" + damageMin + ".." + damageMax
+                + ", recovery=" + recoveryMin + ".." + recoveryMax
+                + ", getDamageToGetPoint=" + getDamageToGetPoint
+                + ", makeDamageToGetPoint=" + makeDamageToGetPoint
+                + ", carriedSkillsNumber=" + carriedSkillsNumber
+                + ", milestones=" + Arrays.toString(milestones)
+                + ", initialStrikeProbability=" + initialStrikeProbability
+                + ", strikeStepBase=" + strikeStepBase
+                + ", randomFactorLimitation=" + randomFactorLimitation
+                + ", highestStrikeProbability=" + highestStrikeProbability
+                + ", strikeFactor=" + strikeFactor + "]";
+    }
+
+    private static double[] toArray(List<Double> values) {
+        double[] out = new double[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = values.get(i);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,279 @@
+package util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameSetUp.json 的流式校验 + 绑定：基于 JsonParser 单趟读取，
+ * 每个 token 到达时即检查键与取值约束，遇到第一个违规立即返回 null，
+ * 全部通过时直接构造 GameConfig，不经过 JsonNode 树或中间 Map。
+ * 规则与 {@link Schemas#SETUP} 保持一致。
+ */
+public final class GameSetUpStreamValidator {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final int INT_MAX = Integer.MAX_VALUE;
+    private static final int MAX_TEXT_LENGTH = 2048;
+
+    /* ---------- 每个键对应 seen 掩码中的一位 ---------- */
+    private static final int SCALING_FACTOR_REGION = 0;
+    private static final int TOTAL_SCALING_FACTOR_LIMITATION = 1;
+    private static final int INITIAL_SKILL_POINT = 2;
+    private static final int SKILL_COST_REGION = 3;
+    private static final int PLAYER_SKILL_POINT_REGION = 4;
+    private static final int CARRIED_HP_REGION = 5;
+    private static final int CARRIED_DEFENSE_REGION = 6;
+    private static final int DAMAGE_REGION = 7;
+    private static final int RECOVERY_REGION = 8;
+    private static final int GET_DAMAGE_TO_GET_POINT = 9;
+    private static final int MAKE_DAMAGE_TO_GET_POINT = 10;
+    private static final int CARRIED_SKILLS_NUMBER = 11;
+    private static final int PORTRAITS_TRANSFER_MILESTONE = 12;
+    private static final int INITIAL_STRIKE_PROBABILITY = 13;
+    private static final int STRIKE_STEP_BASE = 14;
+    private static final int RANDOM_FACTOR_LIMITATION = 15;
+    private static final int HIGHEST_STRIKE_PROBABILITY = 16;
+    private static final int STRIKE_FACTOR = 17;
+    private static final int FONT = 18;
+    private static final int SAVE_PATH = 19;
+    private static final int LOG_PATH = 20;
+    private static final int CHARACTERS_PATH = 21;
+    private static final int SKILLS_PATH = 22;
+    private static final int ALL_KEYS = (1 << 23) - 1;
+
+    private GameSetUpStreamValidator() {
+    }
+
+    /**
+     * 校验成功返回绑定好的 GameConfig，失败返回 null
+     */
+    public static @Nullable GameConfig validate(@NotNull Path path) {
+        if (!Files.isRegularFile(path)) return null;
+        try (JsonParser p = FACTORY.createParser(path.toFile())) {
+            return read(p);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static @Nullable GameConfig read(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) return null;
+
+        List<Double> scalingFactorRegion = null, carriedDefenseRegion = null, portraitsTransferMilestone = null;
+        List<Integer> skillCostRegion = null, playerSkillPointRegion = null, carriedHpRegion = null,
+                damageRegion = null, recoveryRegion = null;
+        int totalScalingFactorLimitation = 0, initialSkillPoint = 0, getDamageToGetPoint = 0,
+                makeDamageToGetPoint = 0, carriedSkillsNumber = 0;
+        double initialStrikeProbability = 0, strikeStepBase = 0, randomFactorLimitation = 0,
+                highestStrikeProbability = 0, strikeFactor = 0;
+        String font = null, savePath = null, logPath = null, charactersPath = null, skillsPath = null;
+
+        int seen = 0;
+        JsonToken t;
+        while ((t = p.nextToken()) == JsonToken.FIELD_NAME) {
+            String key = p.currentName();
+            p.nextToken();
+            int bit;
+            boolean ok;
+            switch (key) {
+                case "scalingFactorRegion" -> {
+                    bit = SCALING_FACTOR_REGION;
+                    ok = (scalingFactorRegion = doubleRegion(p)) != null;
+                }
+                case "carriedDefenseRegion" -> {
+                    bit = CARRIED_DEFENSE_REGION;
+                    ok = (carriedDefenseRegion = doubleRegion(p)) != null;
+                }
+                case "skillCostRegion" -> {
+                    bit = SKILL_COST_REGION;
+                    ok = (skillCostRegion = intRegion(p)) != null;
+                }
+                case "playerSkillPointRegion" -> {
+                    bit = PLAYER_SKILL_POINT_REGION;
+                    ok = (playerSkillPointRegion = intRegion(p)) != null;
+                }
+                case "carriedHpRegion" -> {
+                    bit = CARRIED_HP_REGION;
+                    ok = (carriedHpRegion = intRegion(p)) != null;
+                }
+                case "damageRegion" -> {
+                    bit = DAMAGE_REGION;
+                    ok = (damageRegion = intRegion(p)) != null;
+                }
+                case "recoveryRegion" -> {
+                    bit = RECOVERY_REGION;
+                    ok = (recoveryRegion = intRegion(p)) != null;
+                }
+                case "totalScalingFactorLimitation" -> {
+                    bit = TOTAL_SCALING_FACTOR_LIMITATION;
+                    ok = (totalScalingFactorLimitation = positiveInt(p)) > 0;
+                }
+                case "initialSkillPoint" -> {
+                    bit = INITIAL_SKILL_POINT;
+                    ok = (initialSkillPoint = positiveInt(p)) > 0;
+                }
+                case "getDamageToGetPoint" -> {
+                    bit = GET_DAMAGE_TO_GET_POINT;
+                    ok = (getDamageToGetPoint = positiveInt(p)) > 0;
+                }
+                case "makeDamageToGetPoint" -> {
+                    bit = MAKE_DAMAGE_TO_GET_POINT;
+                    ok = (makeDamageToGetPoint = positiveInt(p)) > 0;
+                }
+                case "carriedSkillsNumber" -> {
+                    bit = CARRIED_SKILLS_NUMBER;
+                    ok = (carriedSkillsNumber = positiveInt(p)) > 0;
+                }
+                case "portraitsTransferMilestone" -> {
+                    bit = PORTRAITS_TRANSFER_MILESTONE;
+                    ok = (portraitsTransferMilestone = milestones(p)) != null;
+                }
+                case "initialStrikeProbability" -> {
+                    bit = INITIAL_STRIKE_PROBABILITY;
+                    ok = !Double.isNaN(initialStrikeProbability = probability(p));
+                }
+                case "strikeStepBase" -> {
+                    bit = STRIKE_STEP_BASE;
+                    ok = !Double.isNaN(strikeStepBase = probability(p));
+                }
+                case "randomFactorLimitation" -> {
+                    bit = RANDOM_FACTOR_LIMITATION;
+                    ok = !Double.isNaN(randomFactorLimitation = probability(p));
+                }
+                case "highestStrikeProbability" -> {
+                    bit = HIGHEST_STRIKE_PROBABILITY;
+                    ok = !Double.isNaN(highestStrikeProbability = probability(p));
+                }
+                case "strikeFactor" -> {
+                    bit = STRIKE_FACTOR;
+                    ok = !Double.isNaN(strikeFactor = factor(p));
+                }
+                case "font" -> {
+                    bit = FONT;
+                    ok = (font = text(p)) != null;
+                }
+                case "savePath" -> {
+                    bit = SAVE_PATH;
+                    ok = (savePath = text(p)) != null;
+                }
+                case "logPath" -> {
+                    bit = LOG_PATH;
+                    ok = (logPath = text(p)) != null;
+                }
+                case "charactersPath" -> {
+                    bit = CHARACTERS_PATH;
+                    ok = (charactersPath = text(p)) != null;
+                }
+                case "skillsPath" -> {
+                    bit = SKILLS_PATH;
+                    ok = (skillsPath = text(p)) != null;
+                }
+                default -> {
+                    return null;   // 多余的键
+                }
+            }
+            int mask = 1 << bit;
+            if (!ok || (seen & mask) != 0) return null;   // 值非法或键重复
+            seen |= mask;
+        }
+        if (t != JsonToken.END_OBJECT || seen != ALL_KEYS || p.nextToken() != null) return null;
+        if (StrikeAnalysis.degenerate(new StrikeSimulation.Params(initialStrikeProbability, strikeStepBase,
+                randomFactorLimitation, highestStrikeProbability)) != null) return null;
+
+        return new GameConfig(
+                scalingFactorRegion, totalScalingFactorLimitation, initialSkillPoint,
+                skillCostRegion, playerSkillPointRegion, carriedHpRegion, carriedDefenseRegion,
+                damageRegion, recoveryRegion, getDamageToGetPoint, makeDamageToGetPoint,
+                carriedSkillsNumber, portraitsTransferMilestone, initialStrikeProbability,
+                strikeStepBase, randomFactorLimitation, highestStrikeProbability, strikeFactor,
+                font, savePath, logPath, charactersPath, skillsPath);
+    }
+
+    /* ---------- 单值读取：非法时返回 null / 0 / NaN ---------- */
+
+    /** Region（整数）：两元素递增，0..INT_MAX */
+    private static @Nullable List<Integer> intRegion(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) return null;
+        if (p.nextToken() != JsonToken.VALUE_NUMBER_INT) return null;
+        long a = p.getLongValue();
+        if (p.nextToken() != JsonToken.VALUE_NUMBER_INT) return null;
+        long b = p.getLongValue();
+        if (p.nextToken() != JsonToken.END_ARRAY) return null;
+        if (!(a < b && a >= 0 && b <= INT_MAX)) return null;
+        return List.of((int) a, (int) b);
+    }
+
+    /** Region（小数）：两元素递增，非负 */
+    private static @Nullable List<Double> doubleRegion(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) return null;
+        if (!p.nextToken().isNumeric()) return null;
+        double a = p.getDoubleValue();
+        if (!p.nextToken().isNumeric()) return null;
+        double b = p.getDoubleValue();
+        if (p.nextToken() != JsonToken.END_ARRAY) return null;
+        if (!(a < b && a >= 0 && Double.isFinite(b))) return null;
+        return List.of(a, b);
+    }
+
+    /** 正整数 1..INT_MAX，非法返回 0 */
+    private static int positiveInt(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_NUMBER_INT) return 0;
+        long v = p.getLongValue();
+        return v >= 1 && v <= INT_MAX ? (int) v : 0;
+    }
+
+    /** portraitsTransferMilestone：非空、严格递减，元素 ∈ [0,1] */
+    private static @Nullable List<Double> milestones(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) return null;
+        List<Double> list = new ArrayList<>(4);
+        double prev = Double.POSITIVE_INFINITY;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t == null || !t.isNumeric()) return null;
+            double cur = p.getDoubleValue();
+            if (cur >= prev || cur < 0 || cur > 1) return null;
+            list.add(cur);
+            prev = cur;
+        }
+        return list.isEmpty() ? null : List.copyOf(list);
+    }
+
+    /** 0.00‥1.00，两位小数，非法返回 NaN */
+    private static double probability(JsonParser p) throws IOException {
+        if (!hasScale(p, 2)) return Double.NaN;
+        double v = p.getDoubleValue();
+        return v >= 0 && v <= 1 ? v : Double.NaN;
+    }
+
+    /** Factor：≥0 且有限，一位小数，非法返回 NaN */
+    private static double factor(JsonParser p) throws IOException {
+        if (!hasScale(p, 1)) return Double.NaN;
+        double v = p.getDoubleValue();
+        return v >= 0 && v <= Double.MAX_VALUE ? v : Double.NaN;
+    }
+
+    /** 字符串：非空白且长度 ≤ 2048 */
+    private static @Nullable String text(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING) return null;
+        String s = p.getText();
+        return !s.isBlank() && s.length() <= MAX_TEXT_LENGTH ? s : null;
+    }
+
+    private static boolean hasScale(JsonParser p, int scale) throws IOException {
+        JsonToken t = p.currentToken();
+        if (t == JsonToken.VALUE_NUMBER_INT) return true;
+        if (t != JsonToken.VALUE_NUMBER_FLOAT) return false;
+        BigDecimal bd = p.getDecimalValue().stripTrailingZeros();
+        return bd.scale() <= scale;
+    }
+}
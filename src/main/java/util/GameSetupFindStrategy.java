@@ -36,11 +36,11 @@ public final class GameSetupFindStrategy implements ConfigFindStrategy {
                 "randomFactorLimitation": 0.05,
                 "highestStrikeProbability": 0.9,
                 "strikeFactor": 1.5,
-                "font": "assets\\fonts\\msyhbd.ttc",
+                "font": "assets/fonts/msyhbd.ttc",
                 "savePath": "save",
                 "logPath": "log",
-                "charactersPath": "config\\characters",
-                "skillsPath": "config\\skills"
+                "charactersPath": "config/characters",
+                "skillsPath": "config/skills"
             }
         """;
     }
@@ -0,0 +1,159 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程级配置位置索引：内存中的并发 Map + 单个紧凑索引文件 .cache/locations.idx。
+ * 首次使用时加载一次（顺带清理旧版逐文件的 .cache/*.path）；命中时只做一次 stat 比对 mtime/size，
+ * 变化则只在内存中刷新，文件消失则在内存中剔除，查找路径上不写盘；
+ * 这些变更随下一次 {@link #record} 整体写临时文件后 ATOMIC_MOVE 覆盖。
+ */
+final class LocationIndex {
+
+    private static final int MAGIC = 0x53454C49; // "SELI"
+    private static final int VERSION = 1;
+
+    /** 策略身份：首选路径 + 搜索根 + 文件名 */
+    record Key(String preferredPath, String searchRoot, String fileName) {
+        static @NotNull Key of(@NotNull ConfigFindStrategy strategy) {
+            return new Key(strategy.preferredPath().toString(),
+                    strategy.searchRoot().toString(),
+                    strategy.fileName());
+        }
+    }
+
+    /** 已定位的文件及其记录时的 mtime/size */
+    private record Entry(Path path, long mtime, long size) {
+    }
+
+    private static final class Holder {
+        static final LocationIndex INSTANCE = new LocationIndex(ConfigFinder.CACHE_DIR.resolve("locations.idx"));
+    }
+
+    static LocationIndex get() {
+        return Holder.INSTANCE;
+    }
+
+    private final Path file;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    private LocationIndex(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /** 命中且文件仍存在返回路径，否则返回 null（并剔除失效项） */
+    @Nullable Path lookup(@NotNull Key key) {
+        Entry e = entries.get(key);
+        if (e == null) return null;
+
+        BasicFileAttributes attrs = attributes(e.path);
+        if (attrs == null || !attrs.isRegularFile()) {
+            entries.remove(key, e);
+            return null;
+        }
+        long mtime = attrs.lastModifiedTime().toMillis();
+        if (mtime != e.mtime || attrs.size() != e.size) {
+            // 文件被编辑过，位置仍然有效，仅刷新内存中的元数据
+            entries.replace(key, e, new Entry(e.path, mtime, attrs.size()));
+        }
+        return e.path;
+    }
+
+    /** 记录新定位结果并落盘 */
+    void record(@NotNull Key key, @NotNull Path path) {
+        Path absolute = path.toAbsolutePath();
+        BasicFileAttributes attrs = attributes(absolute);
+        if (attrs == null) return;
+        entries.put(key, new Entry(absolute, attrs.lastModifiedTime().toMillis(), attrs.size()));
+        persist();
+    }
+
+    /* ---------------- 持久化 ---------------- */
+
+    private void load() {
+        deleteLegacyFiles();
+        if (!Files.isRegularFile(file)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return;
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                Key key = new Key(in.readUTF(), in.readUTF(), in.readUTF());
+                entries.put(key, new Entry(Paths.get(in.readUTF()), in.readLong(), in.readLong()));
+            }
+        } catch (IOException | RuntimeException e) {
+            // 索引损坏时丢弃，按冷启动处理
+            entries.clear();
+        }
+    }
+
+    /** 旧版每个配置一个 .cache/{文件名}.path，已由本索引取代 */
+    private void deleteLegacyFiles() {
+        Path dir = file.toAbsolutePath().getParent();
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.path")) {
+            for (Path legacy : stream) {
+                Files.deleteIfExists(legacy);
+            }
+        } catch (IOException | DirectoryIteratorException ignore) {
+            // 清理失败不影响索引
+        }
+    }
+
+    private void persist() {
+        synchronized (writeLock) {
+            try {
+                ConfigFinder.ensureCacheDir();
+                Path tmp = Files.createTempFile(file.getParent(), "locations", ".tmp");
+                try {
+                    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                        Map<Key, Entry> snapshot = Map.copyOf(entries);
+                        out.writeInt(MAGIC);
+                        out.writeInt(VERSION);
+                        out.writeInt(snapshot.size());
+                        for (Map.Entry<Key, Entry> me : snapshot.entrySet()) {
+                            Key k = me.getKey();
+                            Entry e = me.getValue();
+                            out.writeUTF(k.preferredPath);
+                            out.writeUTF(k.searchRoot);
+                            out.writeUTF(k.fileName);
+                            out.writeUTF(e.path.toString());
+                            out.writeLong(e.mtime);
+                            out.writeLong(e.size);
+                        }
+                    }
+                    Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+            } catch (IOException ignore) {
+                // 索引只是加速手段，写失败不影响 locate 结果
+            }
+        }
+    }
+
+    private static @Nullable BasicFileAttributes attributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package util;
+
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内指标：LongAdder 计数器与对数-线性分桶的延迟直方图（每个 2 的幂区间 8 个子桶，即 3 个二进制位，
+ * 桶宽为下界的 12.5%，分位数取桶中点，相对误差不超过约 6.25%），
+ * 计时同时发出 JFR 事件（supereyes.Operation；逐次暴击判定为 supereyes.StrikeRoll，默认关闭）。
+ * 快照可导出为 Prometheus 文本格式，写入文件或由本机 HTTP 端点提供。
+ * <p>
+ * 以 -Dsupereyes.metrics=false 关闭：{@link #ENABLED} 为 static final，JIT 会把埋点整体消除。
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = !"false".equals(System.getProperty("supereyes.metrics"));
+
+    /* ---------- 各路径的埋点 ---------- */
+
+    public static final Timer LOCATE_HIT = timer("locate_hit");
+    public static final Timer LOCATE_MISS = timer("locate_miss");
+    public static final Timer VALIDATE_SETUP_OK = timer("validate_setup_ok");
+    public static final Timer VALIDATE_SETUP_REJECT = timer("validate_setup_reject");
+    public static final Timer PORTRAIT_RELOAD = timer("portrait_reload");
+    public static final Timer STARTUP = timer("startup");
+    public static final Counter STRIKE_ROLLS = counter("strike_rolls");
+    public static final Counter STRIKE_HITS = counter("strike_hits");
+
+    private Metrics() {
+    }
+
+    public static @NotNull Counter counter(@NotNull String name) {
+        return counters().computeIfAbsent(name, Counter::new);
+    }
+
+    public static @NotNull Timer timer(@NotNull String name) {
+        return timers().computeIfAbsent(name, Timer::new);
+    }
+
+    /** 记录一次游戏内的暴击判定；蒙特卡洛模拟等离线判定不调用 */
+    public static void strike(double probability, boolean strike) {
+        if (!ENABLED) return;
+        STRIKE_ROLLS.increment();
+        if (strike) STRIKE_HITS.increment();
+        StrikeRollEvent event = new StrikeRollEvent();
+        if (event.shouldCommit()) {
+            event.probability = probability;
+            event.strike = strike;
+            event.commit();
+        }
+    }
+
+    /* ---------- 计数器与计时器 ---------- */
+
+    public static final class Counter {
+        private final String name;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public void increment() {
+            if (ENABLED) value.increment();
+        }
+
+        public void add(long n) {
+            if (ENABLED) value.add(n);
+        }
+
+        public long sum() {
+            return value.sum();
+        }
+
+        public String name() {
+            return name;
+        }
+    }
+
+    /**
+     * 用法：long t = TIMER.start(); ... TIMER.stop(t);
+     */
+    public static final class Timer {
+        private final String name;
+        private final Histogram histogram = new Histogram();
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        public long start() {
+            return ENABLED ? System.nanoTime() : 0;
+        }
+
+        public void stop(long start) {
+            if (!ENABLED) return;
+            long nanos = System.nanoTime() - start;
+            histogram.record(nanos);
+            OperationEvent event = new OperationEvent();
+            if (event.shouldCommit()) {
+                event.operation = name;
+                event.elapsed = nanos;
+                event.commit();
+            }
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public @NotNull Histogram histogram() {
+            return histogram;
+        }
+    }
+
+    /**
+     * 对数-线性分桶：小于 8 的值各占一桶，其余按 2 的幂分段、每段 8 个子桶
+     */
+    public static final class Histogram {
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+
+        void record(long value) {
+            if (value < 0) value = 0;
+            buckets.incrementAndGet(index(value));
+            count.increment();
+            sum.add(value);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long sum() {
+            return sum.sum();
+        }
+
+        /** q 分位数的近似值（所在桶的中点），没有数据时返回 0 */
+        public long percentile(double q) {
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(q * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank && counts[i] > 0) {
+                    return (lowerBound(i) + lowerBound(i + 1) - 1) / 2;
+                }
+            }
+            return lowerBound(BUCKETS - 1);
+        }
+
+        static int index(long v) {
+            if (v < SUB) return (int) v;
+            int e = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) (v >>> (e - SUB_BITS)) & (SUB - 1);
+            return (e - SUB_BITS + 1) * SUB + sub;
+        }
+
+        static long lowerBound(int index) {
+            if (index < SUB) return index;
+            int e = index / SUB + SUB_BITS - 1;
+            int sub = index % SUB;
+            return (long) (SUB + sub) << (e - SUB_BITS);
+        }
+    }
+
+    /* ---------- 导出 ---------- */
+
+    /** Prometheus 文本格式：计数器为 counter，计时器为 summary（纳秒） */
+    public static @NotNull String export() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Counter c : new TreeMap<>(counters()).values()) {
+            String n = "supereyes_" + c.name + "_total";
+            out.append("# TYPE ").append(n).append(" counter\n");
+            out.append(n).append(' ').append(c.sum()).append('\n');
+        }
+        for (Timer t : new TreeMap<>(timers()).values()) {
+            String n = "supereyes_" + t.name + "_nanoseconds";
+            Histogram h = t.histogram;
+            out.append("# TYPE ").append(n).append(" summary\n");
+            for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+                out.append(n).append("{quantile=\"").append(q).append("\"} ").append(h.percentile(q)).append('\n');
+            }
+            out.append(n).append("_count ").append(h.count()).append('\n');
+            out.append(n).append("_sum ").append(h.sum()).append('\n');
+        }
+        return out.toString();
+    }
+
+    /** 写入文件（临时文件 + ATOMIC_MOVE） */
+    public static void dump(@NotNull Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, "metrics", ".tmp");
+        try {
+            Files.writeString(tmp, export(), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** 在 127.0.0.1:port 的 /metrics 提供快照；port 为 0 时自动分配，关闭返回值即停止 */
+    public static @NotNull Endpoint serve(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = export().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        return new Endpoint(server);
+    }
+
+    public static final class Endpoint implements Closeable {
+        private final HttpServer server;
+
+        private Endpoint(HttpServer server) {
+            this.server = server;
+        }
+
+        public int port() {
+            return server.getAddress().getPort();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+    }
+
+    /* ---------- JFR 事件 ---------- */
+
+    @Name("supereyes.Operation")
+    @Label("Supereyes Operation")
+    @Category("Supereyes")
+    static final class OperationEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("supereyes.StrikeRoll")
+    @Label("Strike Roll")
+    @Category("Supereyes")
+    @Enabled(false)
+    static final class StrikeRollEvent extends Event {
+        @Label("Probability")
+        double probability;
+
+        @Label("Strike")
+        boolean strike;
+    }
+
+    /* 静态字段按声明顺序初始化，埋点常量先于两个 Map 创建，因此通过方法延迟取得 */
+
+    private static Map<String, Counter> counters() {
+        return Registry.COUNTERS;
+    }
+
+    private static Map<String, Timer> timers() {
+        return Registry.TIMERS;
+    }
+
+    private static final class Registry {
+        static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+        static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    }
+}
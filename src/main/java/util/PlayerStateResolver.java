@@ -0,0 +1,82 @@
+package util;
+
+import model.PlayerState;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * HP 比例 → PlayerState 的预编译解析器。
+ * 等级 = 满足 ratio <= milestone 的里程碑个数（里程碑递减），等级 i 对应 PlayerState 第 i 个受伤阶段：
+ * 默认 [0.5, 0.2, 0] 时 (0.5, 1] 为 NORMAL，(0.2, 0.5] 为 LIGHT_DAMAGED，(0, 0.2] 为 HEAVY_DAMAGED，其余 DESTROYED。
+ * 不多于 4 个里程碑时展开为无分支的比较求和，更多时二分查找。
+ */
+public final class PlayerStateResolver {
+
+    private static final PlayerState[] LEVELS = {
+            PlayerState.NORMAL, PlayerState.LIGHT_DAMAGED, PlayerState.HEAVY_DAMAGED, PlayerState.DESTROYED
+    };
+
+    /** 展开比较的里程碑个数上限 */
+    private static final int UNROLLED = 4;
+
+    private final double m0, m1, m2, m3;
+    private final double[] milestones;   // 仅二分查找时使用
+
+    private PlayerStateResolver(double[] milestones) {
+        for (int i = 1; i < milestones.length; i++) {
+            if (!(milestones[i] < milestones[i - 1])) {
+                throw new IllegalArgumentException("milestones must be strictly descending");
+            }
+        }
+        // 空位填 -∞：任何有限比例都不满足 ratio <= -∞
+        double[] padded = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        System.arraycopy(milestones, 0, padded, 0, Math.min(UNROLLED, milestones.length));
+        this.m0 = padded[0];
+        this.m1 = padded[1];
+        this.m2 = padded[2];
+        this.m3 = padded[3];
+        this.milestones = milestones.length > UNROLLED ? milestones.clone() : null;
+    }
+
+    public static @NotNull PlayerStateResolver of(double @NotNull [] milestones) {
+        return new PlayerStateResolver(milestones.clone());
+    }
+
+    public static @NotNull PlayerStateResolver of(@NotNull List<Double> milestones) {
+        double[] values = new double[milestones.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = milestones.get(i);
+        }
+        return new PlayerStateResolver(values);
+    }
+
+    public static @NotNull PlayerStateResolver of(@NotNull GameRules rules) {
+        return new PlayerStateResolver(rules.milestones());
+    }
+
+    /** 满足 ratio <= milestone 的里程碑个数 */
+    public int level(double ratio) {
+        if (milestones == null) {
+            return (ratio <= m0 ? 1 : 0) + (ratio <= m1 ? 1 : 0) + (ratio <= m2 ? 1 : 0) + (ratio <= m3 ? 1 : 0);
+        }
+        // 递减数组中第一个 < ratio 的位置
+        int lo = 0, hi = milestones.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ratio <= milestones[mid]) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** 等级超出受伤阶段数时归为 DESTROYED */
+    public @NotNull PlayerState resolve(double ratio) {
+        return LEVELS[Math.min(level(ratio), LEVELS.length - 1)];
+    }
+
+    public @NotNull PlayerState resolve(double hp, double maxHp) {
+        return resolve(hp / maxHp);
+    }
+}
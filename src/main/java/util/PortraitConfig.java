@@ -0,0 +1,84 @@
+package util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.PlayerState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 一份 portrait 配置解析后的不可变内容，可在多个 PortraitLoader 间共享。
+ * file 为注册表中的规范路径，相对路径一律以其所在目录为基准（见 {@link #resolve}），
+ * 经不同路径（如符号链接）到达同一配置的 loader 得到相同结果；
+ * table[state.ordinal()][positionId] 为预先解析、规范化好的 portrait 路径
+ */
+record PortraitConfig(Path file, Map<String, String> map, Path[][] table) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final PlayerState[] STATES = PlayerState.values();
+
+    static PortraitConfig parse(Path path) {
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalStateException("Portrait config file not found: " + path.toAbsolutePath());
+        }
+        try (var reader = Files.newBufferedReader(path)) {
+            return of(path, MAPPER.readValue(reader, new TypeReference<Map<String, String>>() {}));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load portrait config from " + path, e);
+        }
+    }
+
+    /** 由已有映射构建（如从启动快照恢复），path 为配置文件路径 */
+    static PortraitConfig of(Path path, Map<String, String> map) {
+        return new PortraitConfig(path, Map.copyOf(map), buildTable(path, map));
+    }
+
+    /** 把映射中的相对路径解析为 portrait 路径 */
+    Path resolve(String relative) {
+        return file.getParent().resolve(relative).normalize();
+    }
+
+    /**
+     * 键形如 "{state}_{position}"，state 可为状态码（n/l/h/d/u）或枚举名；
+     * 无法识别的键只保留在字符串映射里
+     */
+    private static Path[][] buildTable(Path path, Map<String, String> map) {
+        Path base = path.getParent();   // 与 resolve 一致
+        Path[][] table = new Path[STATES.length][];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = new Path[0];
+        }
+        for (Map.Entry<String, String> e : map.entrySet()) {
+            String key = e.getKey();
+            for (PlayerState state : STATES) {
+                String position = positionOf(key, state);
+                if (position == null) continue;
+                int id = PortraitLoader.positionId(position);
+                Path[] row = table[state.ordinal()];
+                if (id >= row.length) {
+                    row = Arrays.copyOf(row, id + 1);
+                    table[state.ordinal()] = row;
+                }
+                row[id] = base.resolve(e.getValue()).normalize();
+                break;
+            }
+        }
+        return table;
+    }
+
+    private static String positionOf(String key, PlayerState state) {
+        for (String prefix : new String[]{state.getState(), state.name()}) {
+            if (key.length() > prefix.length() + 1
+                    && key.startsWith(prefix)
+                    && key.charAt(prefix.length()) == '_') {
+                return key.substring(prefix.length() + 1);
+            }
+        }
+        return null;
+    }
+}
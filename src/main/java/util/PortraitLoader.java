@@ -1,60 +1,152 @@
 package util;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import model.PlayerState;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PortraitLoader {
 
-    private Path path;
-    private Map<String, String> map = Collections.emptyMap();
+    /**
+     * 不可变快照：路径与注册表槽位总是成对替换。
+     * 指向同一文件的 loader 共享同一 entry，任一方 reload 或文件变化后所有 loader 一起看到新配置；
+     * generation / baseVersion 为切换到该 entry 时的版本基准
+     */
+    private record Snapshot(Path path, PortraitRegistry.Entry entry, int generation, int baseVersion) {
+        PortraitConfig config() {
+            return entry.config();
+        }
+    }
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    /** 全局 position → 紧凑 id，重载前后保持稳定；id 只在本进程内有效，持久化时写 position 名 */
+    private static final Map<String, Integer> POSITION_IDS = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> POSITION_NAMES = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_POSITION_ID = new AtomicInteger();
+
+    private volatile Snapshot snapshot;
+    private boolean hotReload;   // 已在注册表中计数为监听者
 
     public PortraitLoader(Path path) {
-        this.path = path;
-        reload();
+        this.snapshot = load(path, 0);
     }
 
-    /** 重新读取 JSON 文件并填充映射 */
+    /** 重新读取 JSON 文件并替换注册表中的共享配置（共享同一文件的 loader 一起生效） */
     public final void reload() {
-        if (!Files.isRegularFile(path)) {
-            throw new IllegalStateException("Portrait config file not found: " + path.toAbsolutePath());
-        }
-        try {
-            this.map = MAPPER.readValue(
-                    Files.newBufferedReader(path),
-                    new TypeReference<Map<String, String>>() {});
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to load portrait config from " + path, e);
-        }
+        PortraitRegistry.shared().refresh(snapshot.path());
+    }
+
+    private static Snapshot load(Path path, int generation) {
+        PortraitRegistry.Entry entry = PortraitRegistry.shared().acquire(path);
+        return new Snapshot(path, entry, generation, entry.version());
     }
 
     /** 根据 state 和 position 获取 portrait */
     public Path getPortrait(String state, String position) {
+        Snapshot s = snapshot;
         String key = state + "_" + position;
-        String relative = map.get(key);
+        String relative = s.config().map().get(key);
         if (relative == null) {
             throw new IllegalArgumentException("No portrait mapping for key: " + key);
         }
-        // 以配置文件所在目录为基准解析相对路径
-        return path.getParent().resolve(relative).normalize();
+        // 与预计算表同一基准：注册表中配置文件规范路径所在目录
+        return s.config().resolve(relative);
+    }
+
+    /**
+     * 热路径版本：按预计算表查找，无字符串拼接、无路径解析。
+     * positionId 由 {@link #positionId(String)} 预先取得
+     */
+    public Path getPortrait(PlayerState state, int positionId) {
+        Path[] row = snapshot.config().table()[state.ordinal()];
+        Path portrait = positionId < row.length ? row[positionId] : null;
+        if (portrait == null) {
+            throw new IllegalArgumentException("No portrait mapping for state " + state + ", position id " + positionId);
+        }
+        return portrait;
+    }
+
+    /** 该 position 在全部状态下的 portrait（去重，未配置的状态跳过） */
+    public List<Path> portraitsFor(int positionId) {
+        Path[][] table = snapshot.config().table();
+        List<Path> portraits = new ArrayList<>(table.length);
+        for (Path[] row : table) {
+            Path portrait = positionId < row.length ? row[positionId] : null;
+            if (portrait != null && !portraits.contains(portrait)) portraits.add(portrait);
+        }
+        return portraits;
+    }
+
+    /** 将 position 字符串驻留为紧凑 id（同一字符串全局同一 id） */
+    public static int positionId(String position) {
+        if (position == null) {
+            throw new IllegalArgumentException("position must not be null");
+        }
+        return POSITION_IDS.computeIfAbsent(position, k -> {
+            int id = NEXT_POSITION_ID.getAndIncrement();
+            POSITION_NAMES.put(id, k);
+            return id;
+        });
+    }
+
+    /** {@link #positionId(String)} 的反查；未分配的 id 返回 null */
+    public static String positionName(int positionId) {
+        return POSITION_NAMES.get(positionId);
+    }
+
+    /* ---------- 热重载 ---------- */
+
+    /**
+     * 开启热重载：配置文件变化后在监听线程上重新解析并替换共享配置。
+     * 同一文件只有一个监听；已开启但监听已失效（目录被删除后重建）时重新注册
+     */
+    public synchronized void enableHotReload() throws IOException {
+        if (hotReload) {
+            PortraitRegistry.shared().ensureWatched(snapshot.entry());
+        } else {
+            PortraitRegistry.shared().watch(snapshot.entry());
+            hotReload = true;
+        }
+    }
+
+    public synchronized void disableHotReload() throws IOException {
+        if (hotReload) {
+            PortraitRegistry.shared().unwatch(snapshot.entry());
+            hotReload = false;
+        }
     }
 
     /* ---------- getter / setter ---------- */
 
     public Path getPath() {
-        return path;
+        return snapshot.path();
     }
 
-    public void setPath(Path path) {
-        this.path = path;
-        reload();
+    /** 快照版本号：共享配置被替换或 setPath 后变化（单调递增） */
+    public int generation() {
+        Snapshot s = snapshot;
+        return s.generation() + s.entry().version() - s.baseVersion();
+    }
+
+    public synchronized void setPath(Path path) {
+        Snapshot next = load(path, generation() + 1);
+        if (hotReload) {
+            // 监听计数跟随 entry 迁移
+            PortraitRegistry.shared().unwatch(snapshot.entry());
+            hotReload = false;
+            this.snapshot = next;
+            try {
+                enableHotReload();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to watch portrait config " + path, e);
+            }
+        } else {
+            this.snapshot = next;
+        }
     }
-}
\ No newline at end of file
+}
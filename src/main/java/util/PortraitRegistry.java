@@ -0,0 +1,245 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程级 portrait 配置注册表：按规范路径（toRealPath）共享一个 {@link Entry}。
+ * 指向同一文件的 PortraitLoader 共享同一 Entry，refresh 只解析一次并对它们同时生效；
+ * 热重载也按路径只注册一个监听（按开启的 loader 计数）。
+ * 值为弱引用，没有 PortraitLoader 再引用时可被 GC 回收（计为一次 eviction）；
+ * 同一文件的并发加载只解析一次（single-flight）。
+ */
+public final class PortraitRegistry {
+
+    /** 命中 / 未命中 / 回收计数快照 */
+    public record Stats(long hits, long misses, long evictions) {
+    }
+
+    /** 一个配置文件的共享槽位：config 整体替换，version 随之加一 */
+    static final class Entry {
+        final Path key;
+        private volatile PortraitConfig config;
+        private volatile int version;
+        private int watchers;                   // 以下两项由 this 锁保护
+        private ConfigWatcher.Handle handle;
+
+        private Entry(Path key, PortraitConfig config) {
+            this.key = key;
+            this.config = config;
+        }
+
+        PortraitConfig config() {
+            return config;
+        }
+
+        /** 每次 refresh 替换配置后加一 */
+        int version() {
+            return version;
+        }
+
+        private synchronized void swap(PortraitConfig next) {
+            config = next;
+            version++;
+        }
+    }
+
+    private static final PortraitRegistry SHARED = new PortraitRegistry();
+
+    public static @NotNull PortraitRegistry shared() {
+        return SHARED;
+    }
+
+    private final ConcurrentHashMap<Path, EntryRef> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Path, CompletableFuture<Entry>> inflight = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Entry> collected = new ReferenceQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private PortraitRegistry() {
+    }
+
+    /** 取共享槽位：已缓存直接返回，否则（与并发请求合并后）解析一次 */
+    Entry acquire(Path path) {
+        Path key = canonical(path);
+        expunge();
+        EntryRef ref = cache.get(key);
+        Entry entry = ref == null ? null : ref.get();
+        if (entry != null) {
+            hits.increment();
+            return entry;
+        }
+        return loadOnce(key, false);
+    }
+
+    /** 文件已变化：强制重新解析，原地替换槽位中的配置（同样合并并发请求） */
+    Entry refresh(Path path) {
+        expunge();
+        return loadOnce(canonical(path), true);
+    }
+
+    /** 用已知内容预置缓存（不解析文件）；已有存活条目时返回已有的 */
+    Entry preload(Path path, Map<String, String> map) {
+        Path key = canonical(path);
+        expunge();
+        EntryRef ref = cache.get(key);
+        Entry entry = ref == null ? null : ref.get();
+        if (entry == null) {
+            entry = new Entry(key, PortraitConfig.of(key, map));
+            cache.put(key, new EntryRef(entry, collected));
+        }
+        return entry;
+    }
+
+    /* ---------------- 热重载 ---------------- */
+
+    /** 一个 loader 开启热重载：该路径首个开启者注册监听，之后只计数 */
+    void watch(Entry entry) throws IOException {
+        synchronized (entry) {
+            entry.watchers++;
+            try {
+                ensureWatched(entry);
+            } catch (IOException e) {
+                entry.watchers--;
+                throw e;
+            }
+        }
+    }
+
+    /** 已计数的 loader 再次开启：监听失效（目录被删除等）时重新注册 */
+    void ensureWatched(Entry entry) throws IOException {
+        synchronized (entry) {
+            if (entry.watchers > 0 && (entry.handle == null || entry.handle.retired())) {
+                entry.handle = ConfigWatcher.watch(entry.key,
+                        () -> refreshQuietly(entry), () -> watchRetired(entry));
+            }
+        }
+    }
+
+    /** 一个 loader 关闭热重载：最后一个关闭时注销监听 */
+    void unwatch(Entry entry) {
+        synchronized (entry) {
+            if (entry.watchers == 0) return;
+            if (--entry.watchers == 0 && entry.handle != null) {
+                entry.handle.close();
+                entry.handle = null;
+            }
+        }
+    }
+
+    private void watchRetired(Entry entry) {
+        synchronized (entry) {
+            if (entry.watchers == 0) return;   // 回调前已全部关闭
+            refreshQuietly(entry);
+            entry.handle = null;
+            try {
+                ensureWatched(entry);
+            } catch (IOException ignore) {
+                // 目录尚未重建：之后再次调用 enableHotReload 时重新监听
+            }
+        }
+    }
+
+    private void refreshQuietly(Entry entry) {
+        try {
+            refresh(entry.key);
+        } catch (RuntimeException ignore) {
+            // 文件写到一半或内容非法时保留旧配置，等待下一次变化
+        }
+    }
+
+    public @NotNull Stats stats() {
+        expunge();
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /** 当前仍存活的条目数 */
+    public int size() {
+        expunge();
+        return cache.size();
+    }
+
+    /* ---------------- 内部 ---------------- */
+
+    private Entry loadOnce(Path key, boolean force) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inflight.putIfAbsent(key, mine);
+        if (running != null) {
+            hits.increment();
+            return join(running);
+        }
+        try {
+            EntryRef ref = cache.get(key);
+            Entry entry = ref == null ? null : ref.get();
+            if (entry != null && !force) {
+                // 在我们抢到加载权之前，另一个线程刚好完成了加载
+                hits.increment();
+            } else {
+                misses.increment();
+                long start = Metrics.PORTRAIT_RELOAD.start();
+                PortraitConfig config = PortraitConfig.parse(key);
+                if (entry != null) {
+                    entry.swap(config);
+                } else {
+                    entry = new Entry(key, config);
+                    cache.put(key, new EntryRef(entry, collected));
+                }
+                Metrics.PORTRAIT_RELOAD.stop(start);
+            }
+            mine.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    private void expunge() {
+        EntryRef ref;
+        while ((ref = (EntryRef) collected.poll()) != null) {
+            if (cache.remove(ref.key, ref)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    private static Path canonical(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            // 文件不存在等情况交给 parse 报错
+            return path.toAbsolutePath().normalize();
+        }
+    }
+
+    private static final class EntryRef extends WeakReference<Entry> {
+        final Path key;
+
+        EntryRef(Entry entry, ReferenceQueue<Entry> queue) {
+            super(entry, queue);
+            this.key = entry.key;
+        }
+    }
+}
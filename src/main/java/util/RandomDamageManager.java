@@ -1,20 +1,72 @@
 package util;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 public class RandomDamageManager {
 
+    /** 可复现场景使用的算法：可拆分、周期长、同种子跨平台逐位一致 */
+    public static final String ALGORITHM = "L64X128MixRandom";
+
     private final double initialProbability;
     private final double stepBase;
     private final double randomFactor;
     private final double highestStrikeProbability;
 
+    /** null 表示使用 ThreadLocalRandom */
+    private final RandomGenerator random;
+
     private double currentProbability;
 
     public RandomDamageManager(double initialProbability,
                                double stepBase,
                                double randomFactor,
                                double highestStrikeProbability) {
+        this(initialProbability, stepBase, randomFactor, highestStrikeProbability, null);
+    }
+
+    /**
+     * 指定随机源；同一随机源状态下的判定序列完全确定，可用于重放。
+     * random 不做同步，实例不能跨线程共享
+     */
+    public RandomDamageManager(double initialProbability,
+                               double stepBase,
+                               double randomFactor,
+                               double highestStrikeProbability,
+                               @Nullable RandomGenerator random) {
+        checkParameters(initialProbability, stepBase, randomFactor, highestStrikeProbability);
+
+        this.initialProbability = initialProbability;
+        this.stepBase = stepBase;
+        this.randomFactor = randomFactor;
+        this.highestStrikeProbability = highestStrikeProbability;
+        this.currentProbability = initialProbability;
+        this.random = random;
+    }
+
+    /** 以对局种子构造：相同种子与参数得到逐位相同的判定序列 */
+    public static @NotNull RandomDamageManager seeded(long seed,
+                                                      double initialProbability,
+                                                      double stepBase,
+                                                      double randomFactor,
+                                                      double highestStrikeProbability) {
+        return new RandomDamageManager(initialProbability, stepBase, randomFactor, highestStrikeProbability,
+                generator(seed));
+    }
+
+    /** 由种子创建 {@link #ALGORITHM} 随机源 */
+    public static RandomGenerator.@NotNull SplittableGenerator generator(long seed) {
+        return RandomGeneratorFactory.<RandomGenerator.SplittableGenerator>of(ALGORITHM).create(seed);
+    }
+
+    static void checkParameters(double initialProbability,
+                                double stepBase,
+                                double randomFactor,
+                                double highestStrikeProbability) {
         if (initialProbability < 0 || initialProbability > 1)
             throw new IllegalArgumentException("initialProbability must be in [0,1]");
         if (stepBase < 0)
@@ -23,45 +75,75 @@ public class RandomDamageManager {
             throw new IllegalArgumentException("randomFactor must be non-negative");
         if (highestStrikeProbability < 0 || highestStrikeProbability > 1)
             throw new IllegalArgumentException("highestStrikeProbability must be in [0,1]");
-
-        this.initialProbability = initialProbability;
-        this.stepBase = stepBase;
-        this.randomFactor = randomFactor;
-        this.highestStrikeProbability = highestStrikeProbability;
-        this.currentProbability = initialProbability;
     }
 
     /** 返回本次判定使用的概率（已加随机扰动并封顶） */
     public double getProbability() {
-        double noise = 1.0 + (ThreadLocalRandom.current().nextDouble(-randomFactor, randomFactor));
-        double p = currentProbability * noise;
-        return clampAndRound(Math.min(p, highestStrikeProbability));
+        return probabilityAt(currentProbability, random());
     }
 
-    /** 进行一次是否“暴击”的判定，并更新内部概率 */
+    /** 进行一次是否“暴击”的判定，并更新内部概率；计入 {@link Metrics#STRIKE_ROLLS} / {@link Metrics#STRIKE_HITS} */
     public boolean isStrike() {
-        double p = getProbability();
-        boolean strike = ThreadLocalRandom.current().nextDouble() < p;
+        return roll(true);
+    }
+
+    /** 同 isStrike，但不计入 Metrics：StrikeSimulation 等离线模拟用，避免混入游戏内的暴击统计 */
+    boolean isStrikeUncounted() {
+        return roll(false);
+    }
+
+    private boolean roll(boolean counted) {
+        RandomGenerator random = random();
+        double p = probabilityAt(currentProbability, random);
+        boolean strike = random.nextDouble() < p;
+        if (counted) Metrics.strike(p, strike);
         if (strike) {
             currentProbability = initialProbability;
         } else {
-            step();
+            currentProbability = stepFrom(currentProbability, random);
         }
         return strike;
     }
 
-    /** 非暴击时，让概率增长一步（带随机扰动） */
-    private void step() {
-        if (currentProbability >= highestStrikeProbability) {
-            return;
+    /* ---------- 纯函数部分，供并发版本复用 ---------- */
+
+    double initialProbability() {
+        return initialProbability;
+    }
+
+    private RandomGenerator random() {
+        return random != null ? random : ThreadLocalRandom.current();
+    }
+
+    /** 以 current 为基准，加扰动并封顶后的判定概率 */
+    final double probabilityAt(double current, RandomGenerator random) {
+        double p = current * noise(random);
+        return clampAndRound(Math.min(p, highestStrikeProbability));
+    }
+
+    /** 非暴击时，让概率从 current 增长一步（带随机扰动） */
+    final double stepFrom(double current, RandomGenerator random) {
+        if (current >= highestStrikeProbability) {
+            return current;
         }
-        double noise = 1.0 + ThreadLocalRandom.current().nextDouble(-randomFactor, randomFactor);
-        double stepSize = stepBase * noise;
-        currentProbability = clampAndRound(Math.min(currentProbability + stepSize, highestStrikeProbability));
+        return stepWith(current, noise(random));
+    }
+
+    /** 同 stepFrom，扰动由调用方预先取得 */
+    final double stepWith(double current, double noise) {
+        if (current >= highestStrikeProbability) {
+            return current;
+        }
+        return clampAndRound(Math.min(current + stepBase * noise, highestStrikeProbability));
+    }
+
+    /** 1 ± randomFactor 的均匀扰动；randomFactor 为 0 时不扰动 */
+    final double noise(RandomGenerator random) {
+        return randomFactor == 0 ? 1.0 : 1.0 + random.nextDouble(-randomFactor, randomFactor);
     }
 
     /** 保留两位小数 */
     private static double clampAndRound(double value) {
         return Math.round(value * 100.0) / 100.0;
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 可热重载的 GameConfig：持有当前不可变快照，
+ * 文件变化后按 {@link Schemas#SETUP} 的规则重新校验并绑定，通过才原子替换；解析失败或校验不通过时保留旧快照
+ */
+public final class ReloadableGameConfig implements Closeable {
+
+    private final Path file;
+    private final AtomicReference<GameConfig> current;
+    private ConfigWatcher.Handle watchHandle;
+
+    public ReloadableGameConfig(@NotNull Path file) throws IOException {
+        this.file = file;
+        this.current = new AtomicReference<>(validated(file));
+    }
+
+    /** 当前快照，不阻塞 */
+    public @NotNull GameConfig get() {
+        return current.get();
+    }
+
+    public @NotNull Path getPath() {
+        return file;
+    }
+
+    /** 立即重新读取一次；内容不合法时抛 IOException，当前快照不变 */
+    public void reload() throws IOException {
+        current.set(validated(file));
+    }
+
+    private static GameConfig validated(Path file) throws IOException {
+        GameConfig config = GameSetUpStreamValidator.validate(file);
+        if (config == null) {
+            throw new IOException("Invalid game setup " + file + ": "
+                    + new GameSetUpValidationStrategy().check(file).reasons());
+        }
+        return config;
+    }
+
+    /** 开启热重载 */
+    public synchronized void enableHotReload() throws IOException {
+        if (watchHandle == null || watchHandle.retired()) {
+            watchHandle = ConfigWatcher.watch(file, this::reloadQuietly, this::watchRetired);
+        }
+    }
+
+    /** 目录被删除等导致监听失效：按当前文件重载一次并尝试重新监听 */
+    private synchronized void watchRetired() {
+        if (watchHandle == null) return;   // 回调前已关闭热重载
+        reloadQuietly();
+        watchHandle = null;
+        try {
+            enableHotReload();
+        } catch (IOException ignore) {
+            // 目录尚未重建：之后再次调用 enableHotReload 时重新监听
+        }
+    }
+
+    /** 关闭热重载 */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchHandle != null) {
+            watchHandle.close();
+            watchHandle = null;
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (IOException ignore) {
+            // 编辑中途的非法内容：保留旧快照，等待下一次变化
+        }
+    }
+}
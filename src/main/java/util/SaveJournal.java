@@ -0,0 +1,411 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * savePath 下的存档：分段、只追加的二进制日志（journal-{序号}.log）+ 定期压缩出的快照（snapshot-{序号}.snap）。
+ * <p>
+ * 记录格式：[int 长度][int CRC32C][byte 类型][short 键长][键 UTF-8][值]，长度与 CRC 都只覆盖其后的内容。
+ * 所有写入由唯一的写线程完成：并发的 save 请求在队列中攒成一批，一次 FileChannel.write + force 落盘（group commit），
+ * 落盘后才更新内存视图并完成各自的 future。
+ * 当前段超过 {@link #SEGMENT_BYTES} 时换新段；自上次快照起积累 {@link #COMPACT_SEGMENTS} 段后写一次快照
+ * （临时文件 + ATOMIC_MOVE），并删除被快照覆盖的旧段。
+ * 打开时加载最新的快照并按序重放其后的各段；遇到 CRC 不符或截断的记录即停止该段（崩溃时写了一半的尾部）。
+ * <p>
+ * 一批写入或 force 失败时，把当前段截回这批开始前的长度，失败的批次不会在重放时复活，
+ * 之后确认的批次也不会被残留的半条记录挡住；截断本身也失败时换到新段继续写。
+ */
+public final class SaveJournal implements Closeable {
+
+    static final long SEGMENT_BYTES = 4L << 20;
+    static final int COMPACT_SEGMENTS = 4;
+    /** 一次 group commit 最多合并的请求数 */
+    static final int MAX_BATCH = 1024;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER = 8;   // 长度 + CRC
+    private static final int SNAPSHOT_MAGIC = 0x53455353; // "SESS"
+
+    private record Request(byte type, String key, byte[] value, CompletableFuture<Void> done) {
+    }
+
+    /** 打开段文件；测试可替换以注入写入失败 */
+    interface SegmentOpener {
+        FileChannel open(Path file) throws IOException;
+    }
+
+    private static final SegmentOpener DEFAULT_OPENER = file -> FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+    private static final Request CLOSE = new Request((byte) 0, "", new byte[0], null);
+
+    private final Path dir;
+    private final SegmentOpener opener;
+    private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private boolean closed;   // 与入队一起在 queue 上同步：CLOSE 之后不会再有请求入队
+
+    /* 以下只由写线程访问 */
+    private FileChannel segment;
+    private long segmentSeq;
+    private long snapshotSeq;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 << 10);
+
+    SaveJournal(Path dir, SegmentOpener opener) throws IOException {
+        this.dir = dir;
+        this.opener = opener;
+        Files.createDirectories(dir);
+        replay();
+        openSegment(segmentSeq + 1);
+        if (segmentSeq - snapshotSeq > COMPACT_SEGMENTS) {
+            compact();   // 多次重启留下的短段
+        }
+        this.writer = new Thread(this::writeLoop, "save-journal-" + dir.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** 打开（必要时创建）目录 dir 下的存档并重放 */
+    public static @NotNull SaveJournal open(@NotNull Path dir) throws IOException {
+        return new SaveJournal(dir, DEFAULT_OPENER);
+    }
+
+    /** 使用 GameConfig.savePath */
+    public static @NotNull SaveJournal open(@NotNull GameConfig config) throws IOException {
+        return open(Paths.get(config.savePath()));
+    }
+
+    /* ---------------- 读写 ---------------- */
+
+    /** 写入 key → value；返回的 future 在数据 force 到磁盘后完成 */
+    public @NotNull CompletableFuture<Void> save(@NotNull String key, byte @NotNull [] value) {
+        return submit(PUT, key, value.clone());
+    }
+
+    public @NotNull CompletableFuture<Void> delete(@NotNull String key) {
+        return submit(DELETE, key, new byte[0]);
+    }
+
+    /** 已落盘的最新值 */
+    public byte @Nullable [] get(@NotNull String key) {
+        byte[] value = entries.get(key);
+        return value == null ? null : value.clone();
+    }
+
+    public @NotNull Set<String> keys() {
+        return Set.copyOf(entries.keySet());
+    }
+
+    /** 处理完已提交的请求后停止写线程并关闭文件 */
+    @Override
+    public void close() throws IOException {
+        synchronized (queue) {
+            if (closed) return;
+            closed = true;
+            queue.add(CLOSE);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Void> submit(byte type, String key, byte[] value) {
+        if (key.getBytes(StandardCharsets.UTF_8).length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("key too long");
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        synchronized (queue) {
+            if (!closed) {
+                queue.add(new Request(type, key, value, done));
+                return done;
+            }
+        }
+        done.completeExceptionally(new IllegalStateException("journal is closed"));
+        return done;
+    }
+
+    /* ---------------- 写线程 ---------------- */
+
+    private void writeLoop() {
+        List<Request> batch = new ArrayList<>(MAX_BATCH);
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+            } catch (InterruptedException e) {
+                break;
+            }
+            // CLOSE 总是最后一个入队的请求
+            if (batch.get(batch.size() - 1) == CLOSE) {
+                stop = true;
+                batch.remove(batch.size() - 1);
+            }
+            commit(batch);
+            batch.clear();
+        }
+        // 写线程被中断时队列里可能还有请求
+        queue.drainTo(batch);
+        for (Request r : batch) {
+            if (r != CLOSE) r.done.completeExceptionally(new IllegalStateException("journal is closed"));
+        }
+        try {
+            segment.close();
+        } catch (IOException ignore) {
+            // 已 force 过，关闭失败不影响数据
+        }
+    }
+
+    private void commit(List<Request> batch) {
+        if (batch.isEmpty()) return;
+        long start = -1;
+        try {
+            start = segment.size();
+            buffer.clear();
+            for (Request r : batch) {
+                encode(r.type, r.key, r.value);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            segment.force(false);
+        } catch (IOException | RuntimeException e) {
+            discardFrom(start);
+            for (Request r : batch) {
+                r.done.completeExceptionally(e);
+            }
+            return;
+        }
+        for (Request r : batch) {
+            apply(r.type, r.key, r.value);
+            r.done.complete(null);
+        }
+        try {
+            if (segment.size() >= SEGMENT_BYTES) roll();
+        } catch (IOException ignore) {
+            // 换段失败就继续写当前段，下一批再试
+        }
+    }
+
+    /**
+     * 丢弃失败批次可能已写入的字节：截回 start；截断失败（或 start 未知）时换到新段，
+     * 残留的尾部只会让重放在旧段末尾停下，不影响新段
+     */
+    private void discardFrom(long start) {
+        try {
+            if (start >= 0) {
+                segment.truncate(start);
+                segment.force(false);
+                return;
+            }
+        } catch (IOException | RuntimeException ignore) {
+            // 换段
+        }
+        try {
+            segment.close();
+        } catch (IOException ignore) {
+            // 旧段不再使用
+        }
+        try {
+            openSegment(segmentSeq + 1);
+        } catch (IOException ignore) {
+            // 连新段都打不开：保留已关闭的 segment，下一批写入失败并再次尝试换段
+        }
+    }
+
+    private void roll() throws IOException {
+        segment.close();
+        openSegment(segmentSeq + 1);
+        if (segmentSeq - snapshotSeq >= COMPACT_SEGMENTS) {
+            compact();
+        }
+    }
+
+    /**
+     * 快照覆盖当前段之前的所有段：写入 snapshot-{segmentSeq}，成功后删除旧段与旧快照
+     */
+    private void compact() throws IOException {
+        long seq = segmentSeq;
+        Path tmp = Files.createTempFile(dir, "snapshot", ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer head = ByteBuffer.allocate(8).putInt(SNAPSHOT_MAGIC).putInt(entries.size());
+                head.flip();
+                out.write(head);
+                for (Map.Entry<String, byte[]> e : entries.entrySet()) {
+                    buffer.clear();
+                    encode(PUT, e.getKey(), e.getValue());
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                }
+                out.force(true);
+            }
+            Files.move(tmp, dir.resolve(snapshotName(seq)), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        snapshotSeq = seq;
+        for (Map.Entry<Long, Path> e : list("journal-", ".log").entrySet()) {
+            if (e.getKey() < seq) Files.deleteIfExists(e.getValue());
+        }
+        for (Map.Entry<Long, Path> e : list("snapshot-", ".snap").entrySet()) {
+            if (e.getKey() < seq) Files.deleteIfExists(e.getValue());
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+        segmentSeq = seq;
+        segment = opener.open(dir.resolve(segmentName(seq)));
+    }
+
+    private void encode(byte type, String key, byte[] value) {
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        int body = 1 + 2 + k.length + value.length;
+        ensureCapacity(HEADER + body);
+        int start = buffer.position();
+        buffer.putInt(body).putInt(0).put(type).putShort((short) k.length).put(k).put(value);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(start + HEADER).limit(start + HEADER + body));
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    private void ensureCapacity(int extra) {
+        if (buffer.remaining() >= extra) return;
+        ByteBuffer bigger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+        buffer.flip();
+        bigger.put(buffer);
+        buffer = bigger;
+    }
+
+    private void apply(byte type, String key, byte[] value) {
+        if (type == PUT) entries.put(key, value);
+        else entries.remove(key);
+    }
+
+    /* ---------------- 重放 ---------------- */
+
+    private void replay() throws IOException {
+        TreeMap<Long, Path> snapshots = list("snapshot-", ".snap");
+        for (Long seq : snapshots.descendingKeySet()) {
+            if (loadSnapshot(snapshots.get(seq))) {
+                snapshotSeq = seq;
+                break;
+            }
+            entries.clear();
+        }
+        TreeMap<Long, Path> segments = list("journal-", ".log");
+        segmentSeq = Math.max(snapshotSeq, segments.isEmpty() ? 0 : segments.lastKey());
+        for (Map.Entry<Long, Path> e : segments.tailMap(snapshotSeq, true).entrySet()) {
+            replaySegment(e.getValue());
+        }
+    }
+
+    private boolean loadSnapshot(Path file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (in.remaining() < 8 || in.getInt() != SNAPSHOT_MAGIC) return false;
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            if (!decode(in)) return false;
+        }
+        return true;
+    }
+
+    /** 重放到第一条损坏记录为止，并截掉损坏的尾部 */
+    private void replaySegment(Path file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (in.hasRemaining() && decode(in)) {
+            // 逐条应用
+        }
+        if (in.hasRemaining()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(in.position());
+            }
+        }
+    }
+
+    /** 解码一条记录并应用；记录不完整或 CRC 不符时返回 false，position 停在该记录起点 */
+    private boolean decode(ByteBuffer in) {
+        int start = in.position();
+        if (in.remaining() < HEADER + 3) return false;
+        int body = in.getInt();
+        int crc = in.getInt();
+        if (body < 3 || body > in.remaining()) {
+            in.position(start);
+            return false;
+        }
+        CRC32C check = new CRC32C();
+        check.update(in.duplicate().limit(in.position() + body));
+        if ((int) check.getValue() != crc) {
+            in.position(start);
+            return false;
+        }
+        byte type = in.get();
+        int keyLength = in.getShort();
+        if (keyLength < 0 || 3 + keyLength > body) {
+            in.position(start);
+            return false;
+        }
+        byte[] k = new byte[keyLength];
+        in.get(k);
+        byte[] value = new byte[body - 3 - keyLength];
+        in.get(value);
+        apply(type, new String(k, StandardCharsets.UTF_8), value);
+        return true;
+    }
+
+    /* ---------------- 文件名 ---------------- */
+
+    private static String segmentName(long seq) {
+        return String.format("journal-%016d.log", seq);
+    }
+
+    private static String snapshotName(long seq) {
+        return String.format("snapshot-%016d.snap", seq);
+    }
+
+    private TreeMap<Long, Path> list(String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), file);
+                } catch (NumberFormatException ignore) {
+                    // 不是本类写出的文件
+                }
+            }
+        }
+        return files;
+    }
+}
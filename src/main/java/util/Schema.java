@@ -0,0 +1,291 @@
+package util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 声明式 JSON 配置 schema。通过 Builder 每个键声明一次，
+ * build() 时编译成按槽位下标排列的扁平 Checker 数组 + 键 → 槽位索引；
+ * 校验时每个字段一次查表 + 一次具体 Checker 调用，收集全部不合法原因。
+ */
+public final class Schema {
+
+    /** 单值检查：合法返回 null，否则返回原因 */
+    interface Checker {
+        @Nullable String check(@NotNull JsonNode node);
+    }
+
+    /** 跨字段检查：在所有单值检查通过后执行 */
+    public interface ObjectRule {
+        @Nullable String check(@NotNull JsonNode root);
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String name;
+    private final Map<String, Integer> slots;
+    private final String[] keys;
+    private final Checker[] checkers;
+    private final ObjectRule[] objectRules;
+
+    private Schema(String name, LinkedHashMap<String, Checker> fields, List<ObjectRule> rules) {
+        this.name = name;
+        this.keys = fields.keySet().toArray(new String[0]);
+        this.checkers = fields.values().toArray(new Checker[0]);
+        this.slots = new HashMap<>(keys.length * 2);
+        for (int i = 0; i < keys.length; i++) {
+            slots.put(keys[i], i);
+        }
+        this.objectRules = rules.toArray(new ObjectRule[0]);
+    }
+
+    public static @NotNull Builder builder(@NotNull String name) {
+        return new Builder(name);
+    }
+
+    public @NotNull String name() {
+        return name;
+    }
+
+    /** 读取并校验文件 */
+    public @NotNull FilterResult check(@NotNull Path file) {
+        if (!Files.isRegularFile(file)) {
+            return FilterResult.reject(file, List.of("file not found"));
+        }
+        JsonNode root;
+        try (var reader = Files.newBufferedReader(file)) {
+            root = MAPPER.readTree(reader);
+        } catch (JsonProcessingException e) {
+            return FilterResult.reject(file, List.of("malformed JSON: " + e.getOriginalMessage()));
+        } catch (IOException e) {
+            return FilterResult.reject(file, List.of("unreadable: " + e.getMessage()));
+        }
+        List<String> reasons = check(root);
+        return reasons.isEmpty() ? FilterResult.ok(file) : FilterResult.reject(file, reasons);
+    }
+
+    /** 校验已解析的根节点，返回全部原因（空 = 合法） */
+    public @NotNull List<String> check(@Nullable JsonNode root) {
+        if (root == null || !root.isObject()) {
+            return List.of(name + " must be a JSON object");
+        }
+        List<String> reasons = new ArrayList<>(0);
+        boolean[] present = new boolean[keys.length];
+        for (Iterator<Map.Entry<String, JsonNode>> it = root.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            Integer slot = slots.get(field.getKey());
+            if (slot == null) {
+                reasons.add(field.getKey() + ": unexpected key");
+                continue;
+            }
+            present[slot] = true;
+            JsonNode value = field.getValue();
+            String reason = value.isNull() ? "must not be null" : checkers[slot].check(value);
+            if (reason != null) reasons.add(keys[slot] + ": " + reason);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (!present[i]) reasons.add(keys[i] + ": missing");
+        }
+        if (reasons.isEmpty()) {
+            for (ObjectRule rule : objectRules) {
+                String reason = rule.check(root);
+                if (reason != null) reasons.add(reason);
+            }
+        }
+        return reasons;
+    }
+
+    /* ---------------- Builder ---------------- */
+
+    public static final class Builder {
+        private final String name;
+        private final LinkedHashMap<String, Checker> fields = new LinkedHashMap<>();
+        private final List<ObjectRule> rules = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /** 两元素递增整数数组，元素 ∈ [min, max] */
+        public Builder intRegion(String key, long min, long max) {
+            return field(key, new IntRegion(min, max));
+        }
+
+        /** 两元素递增数组，元素 ∈ [min, max] */
+        public Builder decimalRegion(String key, double min, double max) {
+            return field(key, new DecimalRegion(min, max));
+        }
+
+        /** 整数 ∈ [min, max] */
+        public Builder integer(String key, long min, long max) {
+            return field(key, new IntRange(min, max));
+        }
+
+        /** 数值 ∈ [min, max]，至多 scale 位小数 */
+        public Builder decimal(String key, int scale, double min, double max) {
+            return field(key, new Decimal(scale, min, max));
+        }
+
+        /** 非空、严格递减数组，元素 ∈ [min, max] */
+        public Builder descending(String key, double min, double max) {
+            return field(key, new Descending(min, max));
+        }
+
+        /** 非空白字符串，长度 ≤ maxLength */
+        public Builder text(String key, int maxLength) {
+            return field(key, new Text(maxLength));
+        }
+
+        public Builder rule(ObjectRule rule) {
+            rules.add(rule);
+            return this;
+        }
+
+        public Schema build() {
+            return new Schema(name, fields, rules);
+        }
+
+        private Builder field(String key, Checker checker) {
+            if (fields.putIfAbsent(key, checker) != null) {
+                throw new IllegalArgumentException("Duplicate schema key: " + key);
+            }
+            return this;
+        }
+    }
+
+    /* ---------------- 具体 Checker ---------------- */
+
+    private static String bounds(double min, double max) {
+        return max == Double.MAX_VALUE ? ">= " + min : "in [" + min + ", " + max + "]";
+    }
+
+    private static final class IntRegion implements Checker {
+        private final long min, max;
+
+        IntRegion(long min, long max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public @Nullable String check(@NotNull JsonNode n) {
+            if (n.isArray() && n.size() == 2 && n.get(0).isIntegralNumber() && n.get(1).isIntegralNumber()) {
+                long a = n.get(0).longValue(), b = n.get(1).longValue();
+                if (a < b && a >= min && b <= max) return null;
+            }
+            return "must be two ascending integers in [" + min + ", " + max + "]";
+        }
+    }
+
+    private static final class DecimalRegion implements Checker {
+        private final double min, max;
+
+        DecimalRegion(double min, double max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public @Nullable String check(@NotNull JsonNode n) {
+            if (n.isArray() && n.size() == 2 && n.get(0).isNumber() && n.get(1).isNumber()) {
+                double a = n.get(0).doubleValue(), b = n.get(1).doubleValue();
+                if (a < b && a >= min && b <= max) return null;
+            }
+            return "must be two ascending numbers " + bounds(min, max);
+        }
+    }
+
+    private static final class IntRange implements Checker {
+        private final long min, max;
+
+        IntRange(long min, long max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public @Nullable String check(@NotNull JsonNode n) {
+            if (n.isIntegralNumber() && n.canConvertToLong()) {
+                long v = n.longValue();
+                if (v >= min && v <= max) return null;
+            }
+            return "must be an integer in [" + min + ", " + max + "]";
+        }
+    }
+
+    private static final class Decimal implements Checker {
+        private final int scale;
+        private final double min, max;
+
+        Decimal(int scale, double min, double max) {
+            this.scale = scale;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public @Nullable String check(@NotNull JsonNode n) {
+            if (n.isNumber()) {
+                BigDecimal bd = new BigDecimal(n.asText()).stripTrailingZeros();
+                double v = bd.doubleValue();
+                if (bd.scale() <= scale && v >= min && v <= max) return null;
+            }
+            return "must be a number " + bounds(min, max) + " with at most " + scale + " decimal(s)";
+        }
+    }
+
+    private static final class Descending implements Checker {
+        private final double min, max;
+
+        Descending(double min, double max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public @Nullable String check(@NotNull JsonNode n) {
+            if (n.isArray() && n.size() > 0) {
+                double prev = Double.POSITIVE_INFINITY;
+                boolean ok = true;
+                for (JsonNode e : n) {
+                    double cur = e.doubleValue();
+                    if (!e.isNumber() || cur >= prev || cur < min || cur > max) {
+                        ok = false;
+                        break;
+                    }
+                    prev = cur;
+                }
+                if (ok) return null;
+            }
+            return "must be a non-empty, strictly descending array " + bounds(min, max);
+        }
+    }
+
+    private static final class Text implements Checker {
+        private final int maxLength;
+
+        Text(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public @Nullable String check(@NotNull JsonNode n) {
+            if (n.isTextual() && !n.asText().isBlank() && n.asText().length() <= maxLength) return null;
+            return "must be a non-blank string of at most " + maxLength + " characters";
+        }
+    }
+}
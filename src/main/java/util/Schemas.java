@@ -0,0 +1,106 @@
+package util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * 全部配置 schema 的唯一声明处：GameSetUp、角色、技能。
+ */
+public final class Schemas {
+
+    static final int INT_MAX = Integer.MAX_VALUE;
+    static final int MAX_TEXT_LENGTH = 2048;
+
+    private static final String[] SCALING_FACTORS = {
+            "hpScalingFactor", "defenseScalingFactor", "attackScalingFactor"
+    };
+
+    /** GameSetUp.json */
+    public static final Schema SETUP = Schema.builder("GameSetUp")
+            .decimalRegion("scalingFactorRegion", 0, Double.MAX_VALUE)
+            .integer("totalScalingFactorLimitation", 1, INT_MAX)
+            .integer("initialSkillPoint", 1, INT_MAX)
+            .intRegion("skillCostRegion", 0, INT_MAX)
+            .intRegion("playerSkillPointRegion", 0, INT_MAX)
+            .intRegion("carriedHpRegion", 0, INT_MAX)
+            .decimalRegion("carriedDefenseRegion", 0, Double.MAX_VALUE)
+            .intRegion("damageRegion", 0, INT_MAX)
+            .intRegion("recoveryRegion", 0, INT_MAX)
+            .integer("getDamageToGetPoint", 1, INT_MAX)
+            .integer("makeDamageToGetPoint", 1, INT_MAX)
+            .integer("carriedSkillsNumber", 1, INT_MAX)
+            .descending("portraitsTransferMilestone", 0, 1)
+            .decimal("initialStrikeProbability", 2, 0, 1)
+            .decimal("strikeStepBase", 2, 0, 1)
+            .decimal("randomFactorLimitation", 2, 0, 1)
+            .decimal("highestStrikeProbability", 2, 0, 1)
+            .decimal("strikeFactor", 1, 0, Double.MAX_VALUE)
+            .text("font", MAX_TEXT_LENGTH)
+            .text("savePath", MAX_TEXT_LENGTH)
+            .text("logPath", MAX_TEXT_LENGTH)
+            .text("charactersPath", MAX_TEXT_LENGTH)
+            .text("skillsPath", MAX_TEXT_LENGTH)
+            .rule(root -> StrikeAnalysis.degenerate(new StrikeSimulation.Params(
+                    root.get("initialStrikeProbability").doubleValue(),
+                    root.get("strikeStepBase").doubleValue(),
+                    root.get("randomFactorLimitation").doubleValue(),
+                    root.get("highestStrikeProbability").doubleValue())))
+            .build();
+
+    /** 不依赖 GameSetUp 的角色 schema */
+    public static final Schema CHARACTER = character(null);
+
+    /** 技能定义：id / name / desc + 消耗点数 */
+    public static final Schema SKILL = Schema.builder("Skill")
+            .text("id", MAX_TEXT_LENGTH)
+            .text("name", MAX_TEXT_LENGTH)
+            .text("desc", MAX_TEXT_LENGTH)
+            .integer("cost", 0, INT_MAX)
+            .build();
+
+    private Schemas() {
+    }
+
+    /**
+     * 角色定义，对应 model.Character 的构造参数。
+     * 给定 GameConfig 时额外检查缩放系数落在 scalingFactorRegion 内、
+     * 三者之和不超过 totalScalingFactorLimitation
+     */
+    public static @NotNull Schema character(@Nullable GameConfig config) {
+        Schema.Builder b = Schema.builder("Character")
+                .text("id", MAX_TEXT_LENGTH)
+                .text("name", MAX_TEXT_LENGTH)
+                .text("desc", MAX_TEXT_LENGTH)
+                .decimal("hpScalingFactor", 2, 0, Double.MAX_VALUE)
+                .decimal("defenseScalingFactor", 2, 0, Double.MAX_VALUE)
+                .decimal("attackScalingFactor", 2, 0, Double.MAX_VALUE)
+                .text("portraitPath", MAX_TEXT_LENGTH)
+                .text("position", MAX_TEXT_LENGTH);
+        if (config != null) {
+            List<Double> region = config.scalingFactorRegion();
+            double lo = region.get(0), hi = region.get(1);
+            int limit = config.totalScalingFactorLimitation();
+            b.rule(root -> {
+                for (String key : SCALING_FACTORS) {
+                    double v = root.get(key).doubleValue();
+                    if (v < lo || v > hi) return key + ": must be within scalingFactorRegion [" + lo + ", " + hi + "]";
+                }
+                return null;
+            });
+            b.rule(root -> sumOf(root) <= limit
+                    ? null : "scaling factors must sum to at most totalScalingFactorLimitation " + limit);
+        }
+        return b.build();
+    }
+
+    private static double sumOf(JsonNode root) {
+        double sum = 0;
+        for (String key : SCALING_FACTORS) {
+            sum += root.get(key).doubleValue();
+        }
+        return sum;
+    }
+}
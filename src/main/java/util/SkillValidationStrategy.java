@@ -0,0 +1,10 @@
+package util;
+
+import java.nio.file.Path;
+
+public class SkillValidationStrategy implements AbstractValidationStrategy {
+    @Override
+    public FilterResult check(Path path) {
+        return Schemas.SKILL.check(path);
+    }
+}
@@ -0,0 +1,332 @@
+package util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.Character;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * GameConfig + 角色/portrait 名册的二进制启动快照：.cache/startup.snap。
+ * <pre>
+ * int MAGIC, int VERSION, int payloadLength, payload[payloadLength], int crc32c(payload)
+ * payload = setup 文件绝对路径 | 来源文件表 (路径, size, mtime) | GameConfig 各字段 | 角色表（含 portrait 映射）
+ * </pre>
+ * 读取时整个文件读进堆内 ByteBuffer 按偏移解码，不经过 JSON 与反射；不用 mmap，
+ * 以免映射未释放时重写快照的 ATOMIC_MOVE 在 Windows 上失败。
+ * setup 文件与快照记录的不同、或任一来源文件的 size/mtime 变化即视为过期，
+ * 自动退回 JSON 校验 + 绑定并重写快照。
+ */
+public final class StartupSnapshot {
+
+    private static final int MAGIC = 0x53455353; // "SESS"
+    private static final int VERSION = 2;
+    private static final long ABSENT = -1;        // sources 中记录时不存在的文件
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** 启动所需的全部配置 */
+    public record Loaded(GameConfig config, List<Character> characters, boolean fromSnapshot) {
+    }
+
+    /** 一个角色定义（portraitPath 为绝对路径） */
+    private record CharacterDef(String id, String name, String desc,
+                                double hpScalingFactor, double defenseScalingFactor, double attackScalingFactor,
+                                Path portraitPath, String position, Map<String, String> portraits) {
+    }
+
+    private StartupSnapshot() {
+    }
+
+    /** 默认快照位置 */
+    public static @NotNull Path defaultFile() {
+        return ConfigFinder.CACHE_DIR.resolve("startup.snap");
+    }
+
+    /**
+     * 优先读快照；缺失、损坏或过期时从 JSON 加载（角色目录取 config.charactersPath），
+     * 校验通过后重写快照。不合法的角色文件不进入名册
+     */
+    public static @NotNull Loaded load(@NotNull Path setupFile, @NotNull Path snapshotFile) throws IOException {
+        Loaded cached = read(snapshotFile, setupFile);
+        if (cached != null) return cached;
+
+        GameConfig config = GameSetUpStreamValidator.validate(setupFile);
+        if (config == null) {
+            throw new IOException("Invalid game setup " + setupFile + ": "
+                    + new GameSetUpValidationStrategy().check(setupFile).reasons());
+        }
+        Path charactersDir = Paths.get(config.charactersPath());
+        List<Path> sources = new ArrayList<>();
+        sources.add(setupFile);
+        if (Files.isDirectory(charactersDir)) sources.add(charactersDir);
+        List<CharacterDef> roster = loadRoster(config, charactersDir, sources);
+        sources.addAll(characterFiles(charactersDir));
+        write(snapshotFile, setupFile, config, roster, sources);
+
+        return new Loaded(config, toCharacters(roster), false);
+    }
+
+    /* ---------------- JSON 路径 ---------------- */
+
+    /** 每个通过校验的角色文件的 portraitPath 都记入 sources，包括因 portrait 配置不可用而被跳过的 */
+    private static List<CharacterDef> loadRoster(GameConfig config, Path dir, List<Path> sources) throws IOException {
+        List<CharacterDef> roster = new ArrayList<>();
+        ConfigValidator validator = new ConfigValidator(new CharacterValidationStrategy(config));
+        for (Path file : characterFiles(dir)) {
+            if (!validator.validate(file)) continue;
+            JsonNode n = MAPPER.readTree(file.toFile());
+            Path portraitPath = file.toAbsolutePath().getParent().resolve(n.get("portraitPath").asText()).normalize();
+            sources.add(portraitPath);   // 修好或补上 portrait 配置后快照随之过期
+            Map<String, String> portraits;
+            try {
+                portraits = PortraitRegistry.shared().acquire(portraitPath).config().map();
+            } catch (RuntimeException e) {
+                continue;   // portrait 配置缺失或非法，角色不可选
+            }
+            roster.add(new CharacterDef(
+                    n.get("id").asText(), n.get("name").asText(), n.get("desc").asText(),
+                    n.get("hpScalingFactor").doubleValue(),
+                    n.get("defenseScalingFactor").doubleValue(),
+                    n.get("attackScalingFactor").doubleValue(),
+                    portraitPath, n.get("position").asText(), portraits));
+        }
+        return roster;
+    }
+
+    private static List<Path> characterFiles(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return files;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) files.add(file.toAbsolutePath());
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static List<Character> toCharacters(List<CharacterDef> roster) {
+        List<Character> characters = new ArrayList<>(roster.size());
+        for (CharacterDef d : roster) {
+            // 先把已知的 portrait 映射放进注册表，Character 构造时直接命中
+            PortraitRegistry.Entry pinned = PortraitRegistry.shared().preload(d.portraitPath(), d.portraits());
+            Character character = new Character(d.id(), d.name(), d.desc(),
+                    d.hpScalingFactor(), d.defenseScalingFactor(), d.attackScalingFactor(),
+                    d.portraitPath(), d.position());
+            Reference.reachabilityFence(pinned);
+            character.preloadPortraits(AssetCache.shared());   // 后台读入，不等待
+            characters.add(character);
+        }
+        return List.copyOf(characters);
+    }
+
+    /* ---------------- 写 ---------------- */
+
+    private static void write(Path snapshotFile, Path setupFile, GameConfig c,
+                              List<CharacterDef> roster, List<Path> sources) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            writeString(out, canonical(setupFile));
+            out.writeInt(sources.size());
+            for (Path source : sources) {
+                writeString(out, source.toAbsolutePath().toString());
+                if (Files.exists(source)) {
+                    BasicFileAttributes attrs = Files.readAttributes(source, BasicFileAttributes.class);
+                    out.writeLong(attrs.size());
+                    out.writeLong(attrs.lastModifiedTime().toMillis());
+                } else {
+                    out.writeLong(ABSENT);   // 缺失的 portrait 配置：出现后即过期
+                    out.writeLong(ABSENT);
+                }
+            }
+
+            writeDoubles(out, c.scalingFactorRegion());
+            out.writeInt(c.totalScalingFactorLimitation());
+            out.writeInt(c.initialSkillPoint());
+            writeInts(out, c.skillCostRegion());
+            writeInts(out, c.playerSkillPointRegion());
+            writeInts(out, c.carriedHpRegion());
+            writeDoubles(out, c.carriedDefenseRegion());
+            writeInts(out, c.damageRegion());
+            writeInts(out, c.recoveryRegion());
+            out.writeInt(c.getDamageToGetPoint());
+            out.writeInt(c.makeDamageToGetPoint());
+            out.writeInt(c.carriedSkillsNumber());
+            writeDoubles(out, c.portraitsTransferMilestone());
+            out.writeDouble(c.initialStrikeProbability());
+            out.writeDouble(c.strikeStepBase());
+            out.writeDouble(c.randomFactorLimitation());
+            out.writeDouble(c.highestStrikeProbability());
+            out.writeDouble(c.strikeFactor());
+            writeString(out, c.font());
+            writeString(out, c.savePath());
+            writeString(out, c.logPath());
+            writeString(out, c.charactersPath());
+            writeString(out, c.skillsPath());
+
+            out.writeInt(roster.size());
+            for (CharacterDef d : roster) {
+                writeString(out, d.id());
+                writeString(out, d.name());
+                writeString(out, d.desc());
+                out.writeDouble(d.hpScalingFactor());
+                out.writeDouble(d.defenseScalingFactor());
+                out.writeDouble(d.attackScalingFactor());
+                writeString(out, d.portraitPath().toString());
+                writeString(out, d.position());
+                out.writeInt(d.portraits().size());
+                for (Map.Entry<String, String> e : d.portraits().entrySet()) {
+                    writeString(out, e.getKey());
+                    writeString(out, e.getValue());
+                }
+            }
+            out.flush();
+
+            byte[] payload = bytes.toByteArray();
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+
+            ConfigFinder.ensureCacheDir();
+            Path tmp = Files.createTempFile(snapshotFile.toAbsolutePath().getParent(), "startup", ".tmp");
+            try {
+                try (DataOutputStream file = new DataOutputStream(Files.newOutputStream(tmp))) {
+                    file.writeInt(MAGIC);
+                    file.writeInt(VERSION);
+                    file.writeInt(payload.length);
+                    file.write(payload);
+                    file.writeInt((int) crc.getValue());
+                }
+                Files.move(tmp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException ignore) {
+            // 快照只是加速手段，写失败下次启动继续走 JSON
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static void writeInts(DataOutputStream out, List<Integer> list) throws IOException {
+        out.writeInt(list.size());
+        for (int v : list) out.writeInt(v);
+    }
+
+    private static void writeDoubles(DataOutputStream out, List<Double> list) throws IOException {
+        out.writeInt(list.size());
+        for (double v : list) out.writeDouble(v);
+    }
+
+    /* ---------------- 读 ---------------- */
+
+    /** 快照有效且来自同一个 setup 文件时返回内容，否则返回 null */
+    private static @Nullable Loaded read(Path snapshotFile, Path setupFile) {
+        if (!Files.isRegularFile(snapshotFile)) return null;
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+            if (buf.remaining() < 16 || buf.getInt() != MAGIC || buf.getInt() != VERSION) return null;
+            int length = buf.getInt();
+            if (length < 0 || buf.remaining() != length + 4) return null;
+
+            ByteBuffer payload = buf.slice().limit(length);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buf.getInt(12 + length)) return null;
+
+            if (!readString(payload).equals(canonical(setupFile))) return null;
+            int sourceCount = payload.getInt();
+            for (int i = 0; i < sourceCount; i++) {
+                Path source = Paths.get(readString(payload));
+                long size = payload.getLong();
+                long mtime = payload.getLong();
+                if (isStale(source, size, mtime)) return null;
+            }
+
+            GameConfig config = new GameConfig(
+                    readDoubles(payload), payload.getInt(), payload.getInt(),
+                    readInts(payload), readInts(payload), readInts(payload), readDoubles(payload),
+                    readInts(payload), readInts(payload), payload.getInt(), payload.getInt(),
+                    payload.getInt(), readDoubles(payload), payload.getDouble(),
+                    payload.getDouble(), payload.getDouble(), payload.getDouble(), payload.getDouble(),
+                    readString(payload), readString(payload), readString(payload),
+                    readString(payload), readString(payload));
+
+            int count = payload.getInt();
+            List<CharacterDef> roster = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String id = readString(payload), name = readString(payload), desc = readString(payload);
+                double hp = payload.getDouble(), def = payload.getDouble(), atk = payload.getDouble();
+                Path portraitPath = Paths.get(readString(payload));
+                String position = readString(payload);
+                int n = payload.getInt();
+                Map<String, String> portraits = new HashMap<>(n * 2);
+                for (int j = 0; j < n; j++) {
+                    portraits.put(readString(payload), readString(payload));
+                }
+                roster.add(new CharacterDef(id, name, desc, hp, def, atk, portraitPath, position, portraits));
+            }
+            return new Loaded(config, toCharacters(roster), true);
+        } catch (IOException | RuntimeException e) {
+            return null;   // 损坏或截断：按过期处理
+        }
+    }
+
+    private static String canonical(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    private static boolean isStale(Path source, long size, long mtime) {
+        if (size == ABSENT) return Files.exists(source);
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(source, BasicFileAttributes.class);
+            return attrs.size() != size || attrs.lastModifiedTime().toMillis() != mtime;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        byte[] b = new byte[length];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static List<Integer> readInts(ByteBuffer buf) {
+        int n = buf.getInt();
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) values[i] = buf.getInt();
+        return List.of(values);
+    }
+
+    private static List<Double> readDoubles(ByteBuffer buf) {
+        int n = buf.getInt();
+        Double[] values = new Double[n];
+        for (int i = 0; i < n; i++) values[i] = buf.getDouble();
+        return List.of(values);
+    }
+}
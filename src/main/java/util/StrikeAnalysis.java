@@ -0,0 +1,201 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 暴击机制的解析计算（不做模拟）。
+ * RandomDamageManager 的当前概率总落在 0.01 的网格上（clampAndRound），
+ * 因此它是一个至多 101 个状态的有限马尔可夫链；每次判定的暴击概率与未暴击时的
+ * 下一状态分布都可由均匀扰动区间精确积分得到。
+ * 以初始状态为起点、暴击为终点做前向传播，得到保底计数（第几次判定触发暴击）的分布，
+ * 长期暴击率 = 1 / 期望判定次数（更新过程）。结果按参数组缓存，只保留最近使用的 {@link #CACHE_SIZE} 组。
+ * 扰动因子须在 [0, 1] 内：超过 1 时扰动后的概率可为负，网格模型不再成立。
+ */
+public final class StrikeAnalysis {
+
+    /** 网格：0.00 .. 1.00 */
+    private static final int STATES = 101;
+    /** 前向传播的最多步数；此后仍未暴击的概率质量记为 unresolved */
+    static final int MAX_ROLLS = 10_000;
+    /** 剩余概率质量低于此值即停止 */
+    private static final double EPSILON = 1e-12;
+
+    /**
+     * pity[n - 1] = 恰好在第 n 次判定（从初始状态或上次暴击后算起）暴击的概率；
+     * unresolved 为 MAX_ROLLS 次内仍未暴击的概率
+     */
+    public record Table(double strikeRate, double meanRolls, double[] pity, double unresolved) {
+
+        /** Table 在缓存中跨调用方共享，数组进出都复制 */
+        public Table {
+            pity = pity.clone();
+        }
+
+        @Override
+        public double[] pity() {
+            return pity.clone();
+        }
+
+        /** 恰好在第 rolls 次判定暴击的概率（不复制数组）；超出截断范围返回 0 */
+        public double pity(int rolls) {
+            if (rolls < 1) throw new IllegalArgumentException("rolls must be >= 1");
+            return rolls <= pity.length ? pity[rolls - 1] : 0;
+        }
+
+        /** 保底计数的 q 分位数（q ∈ (0, 1]）；在截断范围内达不到时返回 -1 */
+        public int percentile(double q) {
+            if (q <= 0 || q > 1) throw new IllegalArgumentException("q must be in (0, 1]");
+            double cumulative = 0;
+            for (int n = 0; n < pity.length; n++) {
+                cumulative += pity[n];
+                if (cumulative >= q - EPSILON) return n + 1;
+            }
+            return -1;
+        }
+
+        /** 几乎永不暴击 */
+        public boolean neverStrikes() {
+            return unresolved > 0.5;
+        }
+
+        /** 每次判定必定暴击，机制失去随机性 */
+        public boolean alwaysStrikes() {
+            return pity.length > 0 && pity[0] >= 1 - 1e-9;
+        }
+    }
+
+    /** 缓存的参数组数；热重载 / 调参工具反复换参数时不会无限增长 */
+    static final int CACHE_SIZE = 32;
+
+    /** access-order 的 LRU，读写都在 synchronized (CACHE) 内 */
+    private static final Map<StrikeSimulation.Params, Table> CACHE =
+            new LinkedHashMap<>(CACHE_SIZE * 2, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<StrikeSimulation.Params, Table> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    private StrikeAnalysis() {
+    }
+
+    public static @NotNull Table of(@NotNull GameConfig config) {
+        return of(StrikeSimulation.Params.of(config));
+    }
+
+    /** randomFactor 大于 1 时抛 IllegalArgumentException */
+    public static @NotNull Table of(@NotNull StrikeSimulation.Params params) {
+        if (params.randomFactor() > 1) {
+            throw new IllegalArgumentException("randomFactor must be in [0,1] for analysis");
+        }
+        synchronized (CACHE) {
+            Table cached = CACHE.get(params);
+            if (cached != null) return cached;
+        }
+        // 计算可能较慢，不持锁；并发的同参数计算结果相同，先放入者胜出
+        Table table = compute(params);
+        synchronized (CACHE) {
+            Table raced = CACHE.putIfAbsent(params, table);
+            return raced != null ? raced : table;
+        }
+    }
+
+    /** 退化配置的原因，正常时返回 null */
+    static @Nullable String degenerate(@NotNull StrikeSimulation.Params params) {
+        Table table = of(params);
+        if (table.neverStrikes()) return "strike parameters never produce a strike";
+        if (table.alwaysStrikes()) return "strike parameters make every roll a strike";
+        return null;
+    }
+
+    /* ---------------- 计算 ---------------- */
+
+    private static Table compute(StrikeSimulation.Params params) {
+        double rf = params.randomFactor();
+        double hi = params.highestStrikeProbability();
+
+        // strike[k]：状态 k 下单次判定的暴击概率；next[k]：未暴击时的下一状态分布
+        double[] strike = new double[STATES];
+        double[][] next = new double[STATES][];
+        for (int k = 0; k < STATES; k++) {
+            double c = k / 100.0;
+            double[] judged = distribution(0, c, rf, hi);
+            double s = 0;
+            for (int j = 0; j < STATES; j++) s += judged[j] * (j / 100.0);
+            strike[k] = s;
+            next[k] = c >= hi ? pointMass(k) : distribution(c, params.stepBase(), rf, hi);
+        }
+
+        double[] mass = pointMass(index(params.initialProbability()));
+        double[] pity = new double[MAX_ROLLS];
+        double remaining = 1;
+        double mean = 0;
+        int rolls = 0;
+        while (rolls < MAX_ROLLS && remaining > EPSILON) {
+            double struck = 0;
+            double[] after = new double[STATES];
+            for (int k = 0; k < STATES; k++) {
+                double m = mass[k];
+                if (m == 0) continue;
+                struck += m * strike[k];
+                double miss = m * (1 - strike[k]);
+                if (miss == 0) continue;
+                double[] row = next[k];
+                for (int j = 0; j < STATES; j++) {
+                    if (row[j] != 0) after[j] += miss * row[j];
+                }
+            }
+            pity[rolls++] = struck;
+            mean += rolls * struck;
+            remaining -= struck;
+            mass = after;
+        }
+        remaining = Math.max(0, remaining);
+        double resolved = 1 - remaining;
+        double meanRolls = resolved > 0 ? mean / resolved : Double.POSITIVE_INFINITY;
+        double rate = remaining > 0.5 ? 0 : 1 / meanRolls;
+        return new Table(rate, meanRolls, Arrays.copyOf(pity, rolls), remaining);
+    }
+
+    /**
+     * round2(min(a + b·u, hi)) 在网格上的分布，u ~ U[1 - rf, 1 + rf]。
+     * 与 RandomDamageManager 的 probabilityAt（a = 0, b = current）和 stepFrom（a = current, b = stepBase）对应
+     */
+    private static double[] distribution(double a, double b, double rf, double hi) {
+        double lo = a + b * (1 - rf);
+        double up = a + b * (1 + rf);
+        if (rf == 0 || b == 0 || up <= lo) {
+            return pointMass(index(Math.min(lo, hi)));
+        }
+        double width = up - lo;
+        double[] dist = new double[STATES];
+        // 超过上限的部分全部落在 round2(hi)
+        if (up > hi) {
+            dist[index(hi)] += (up - Math.max(lo, hi)) / width;
+            up = Math.max(lo, hi);
+        }
+        for (int k = index(lo); k <= index(up) && k < STATES; k++) {
+            double from = Math.max(lo, (k - 0.5) / 100.0);
+            double to = Math.min(up, (k + 0.5) / 100.0);
+            if (to > from) dist[k] += (to - from) / width;
+        }
+        return dist;
+    }
+
+    private static int index(double probability) {
+        return (int) Math.max(0, Math.min(STATES - 1, Math.round(probability * 100.0)));
+    }
+
+    private static double[] pointMass(int k) {
+        double[] dist = new double[STATES];
+        dist[k] = 1;
+        return dist;
+    }
+}
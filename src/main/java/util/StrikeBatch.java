@@ -0,0 +1,130 @@
+package util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 批量暴击判定（蒙特卡洛模拟用）：N 个相互独立的 RandomDamageManager 状态
+ * 以 struct-of-arrays 形式存放（current / initial / stepBase / randomFactor / highest 各一个 double[]），
+ * {@link #roll(long[])} 在一个紧凑循环里把全部通道推进一步，暴击结果写成位图。
+ * 每步先批量生成均匀随机数，再做无分支的算术与选择，便于 JIT 自动向量化。
+ * 单条通道的分布与 RandomDamageManager.isStrike 相同。非线程安全，每个工作线程各持一个。
+ */
+public final class StrikeBatch {
+
+    private final int size;
+    private final double[] current;
+    private final double[] initial;
+    private final double[] stepBase;
+    private final double[] randomFactor;
+    private final double[] highest;
+
+    /* 每步复用的临时数组 */
+    private final double[] probabilityNoise;
+    private final double[] strikeRoll;
+    private final double[] stepNoise;
+    private final double[] struck;
+
+    private final RandomGenerator random;
+
+    /** size 条通道，全部使用同一组参数 */
+    public StrikeBatch(int size,
+                       double initialProbability,
+                       double stepBase,
+                       double randomFactor,
+                       double highestStrikeProbability) {
+        this(size, initialProbability, stepBase, randomFactor, highestStrikeProbability,
+                RandomDamageManager.generator(ThreadLocalRandom.current().nextLong()));
+    }
+
+    /** 指定随机源（例如由对局种子创建），结果可复现 */
+    public StrikeBatch(int size,
+                       double initialProbability,
+                       double stepBase,
+                       double randomFactor,
+                       double highestStrikeProbability,
+                       RandomGenerator random) {
+        if (size <= 0) throw new IllegalArgumentException("size must be positive");
+        this.size = size;
+        this.current = new double[size];
+        this.initial = new double[size];
+        this.stepBase = new double[size];
+        this.randomFactor = new double[size];
+        this.highest = new double[size];
+        this.probabilityNoise = new double[size];
+        this.strikeRoll = new double[size];
+        this.stepNoise = new double[size];
+        this.struck = new double[size];
+        this.random = random;
+        for (int i = 0; i < size; i++) {
+            configure(i, initialProbability, stepBase, randomFactor, highestStrikeProbability);
+        }
+    }
+
+    /** 单独设置某条通道的参数，并把其当前概率重置为初始值 */
+    public void configure(int lane,
+                          double initialProbability,
+                          double stepBase,
+                          double randomFactor,
+                          double highestStrikeProbability) {
+        RandomDamageManager.checkParameters(initialProbability, stepBase, randomFactor, highestStrikeProbability);
+        this.initial[lane] = initialProbability;
+        this.stepBase[lane] = stepBase;
+        this.randomFactor[lane] = randomFactor;
+        this.highest[lane] = highestStrikeProbability;
+        this.current[lane] = initialProbability;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** 各通道当前（未加扰动的）概率，直接返回内部数组 */
+    public double[] current() {
+        return current;
+    }
+
+    /** 位图所需的 long 个数 */
+    public int bitsetLength() {
+        return (size + 63) >>> 6;
+    }
+
+    /**
+     * 全部通道各判定一次：第 i 条通道暴击则 strikes 的第 i 位为 1。
+     * 返回本步暴击的通道数
+     */
+    public int roll(long[] strikes) {
+        if (strikes.length < bitsetLength()) {
+            throw new IllegalArgumentException("strikes must hold at least " + bitsetLength() + " longs");
+        }
+        final int n = size;
+        final double[] cur = current, init = initial, step = stepBase, rf = randomFactor, hi = highest;
+        final double[] u1 = probabilityNoise, u2 = strikeRoll, u3 = stepNoise, hit = struck;
+
+        for (int i = 0; i < n; i++) u1[i] = random.nextDouble();
+        for (int i = 0; i < n; i++) u2[i] = random.nextDouble();
+        for (int i = 0; i < n; i++) u3[i] = random.nextDouble();
+
+        // 与 RandomDamageManager 相同的算术：noise = 1 + (-rf + u * 2rf)，round2(x) = floor(x * 100 + 0.5) / 100
+        for (int i = 0; i < n; i++) {
+            double c = cur[i];
+            double p = Math.floor(Math.min(c * (1.0 + (u1[i] * 2.0 - 1.0) * rf[i]), hi[i]) * 100.0 + 0.5) / 100.0;
+            double stepped = Math.floor(Math.min(c + step[i] * (1.0 + (u3[i] * 2.0 - 1.0) * rf[i]), hi[i]) * 100.0 + 0.5) / 100.0;
+            boolean strike = u2[i] < p;
+            hit[i] = strike ? 1.0 : 0.0;
+            cur[i] = strike ? init[i] : (c >= hi[i] ? c : stepped);
+        }
+
+        int count = 0;
+        for (int w = 0, base = 0; base < n; w++, base += 64) {
+            long bits = 0;
+            int end = Math.min(64, n - base);
+            for (int b = 0; b < end; b++) {
+                bits |= ((long) hit[base + b]) << b;
+            }
+            strikes[w] = bits;
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,161 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * 暴击机制的并行蒙特卡洛模拟。
+ * 根种子按固定的二分树（只取决于对局数，与线程数无关）拆分为每局独立的随机流，
+ * 因此同一 (参数, 根种子) 在任何并行度下得到逐位相同的结果。
+ */
+public final class StrikeSimulation {
+
+    /** 单个任务顺序执行的对局数上限 */
+    private static final int LEAF_TRIALS = 64;
+
+    /** 间隔直方图的桶数：最后一桶累计所有更长的间隔 */
+    public static final int MAX_GAP = 64;
+
+    /** 暴击机制参数 */
+    public record Params(double initialProbability,
+                         double stepBase,
+                         double randomFactor,
+                         double highestStrikeProbability) {
+        public Params {
+            RandomDamageManager.checkParameters(initialProbability, stepBase, randomFactor, highestStrikeProbability);
+        }
+
+        public static @NotNull Params of(@NotNull GameConfig config) {
+            return new Params(config.initialStrikeProbability(), config.strikeStepBase(),
+                    config.randomFactorLimitation(), config.highestStrikeProbability());
+        }
+
+        RandomDamageManager newManager(SplittableGenerator random) {
+            return new RandomDamageManager(initialProbability, stepBase, randomFactor, highestStrikeProbability, random);
+        }
+    }
+
+    /**
+     * 汇总结果。gaps[k] 为“距上次暴击（或对局开始）第 k+1 次判定时暴击”的次数，
+     * 即暴击间隔分布；最后一桶包含所有 >= MAX_GAP 的间隔
+     */
+    public record Result(int trials, int rollsPerTrial, long strikes, long[] gaps) {
+        public double strikeRate() {
+            long rolls = (long) trials * rollsPerTrial;
+            return rolls == 0 ? 0 : (double) strikes / rolls;
+        }
+    }
+
+    private StrikeSimulation() {
+    }
+
+    /** 在公共 ForkJoinPool 上运行 */
+    public static @NotNull Result run(@NotNull Params params, long rootSeed, int trials, int rollsPerTrial) {
+        return run(params, rootSeed, trials, rollsPerTrial, ForkJoinPool.commonPool());
+    }
+
+    /** 运行 trials 局、每局 rollsPerTrial 次判定；结果与 pool 的并行度无关 */
+    public static @NotNull Result run(@NotNull Params params,
+                                      long rootSeed,
+                                      int trials,
+                                      int rollsPerTrial,
+                                      @NotNull ForkJoinPool pool) {
+        if (trials < 0 || rollsPerTrial < 0) {
+            throw new IllegalArgumentException("trials and rollsPerTrial must be non-negative");
+        }
+        Tally tally = pool.invoke(new SimulationTask(params, RandomDamageManager.generator(rootSeed),
+                0, trials, rollsPerTrial));
+        return new Result(trials, rollsPerTrial, tally.strikes, tally.gaps);
+    }
+
+    /** 单局重放：与 run 中第 trial 局使用同一随机流，返回每次判定的结果 */
+    public static boolean @NotNull [] replay(@NotNull Params params, long rootSeed, int trials, int trial, int rollsPerTrial) {
+        if (trial < 0 || trial >= trials) throw new IndexOutOfBoundsException(trial);
+        SplittableGenerator random = RandomDamageManager.generator(rootSeed);
+        int lo = 0, hi = trials;
+        // 沿与 SimulationTask 相同的拆分路径走到目标局所在的叶子
+        while (hi - lo > LEAF_TRIALS) {
+            int mid = (lo + hi) >>> 1;
+            SplittableGenerator right = random.split();
+            if (trial >= mid) {
+                random = right;
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        for (int i = lo; i < trial; i++) {
+            random.split();
+        }
+        RandomDamageManager manager = params.newManager(random.split());
+        boolean[] strikes = new boolean[rollsPerTrial];
+        for (int r = 0; r < rollsPerTrial; r++) {
+            strikes[r] = manager.isStrikeUncounted();
+        }
+        return strikes;
+    }
+
+    /* ---------------- 内部 ---------------- */
+
+    private static final class Tally {
+        long strikes;
+        final long[] gaps = new long[MAX_GAP];
+
+        void add(Tally other) {
+            strikes += other.strikes;
+            for (int i = 0; i < MAX_GAP; i++) {
+                gaps[i] += other.gaps[i];
+            }
+        }
+    }
+
+    private static final class SimulationTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final Params params;
+        private final SplittableGenerator random;
+        private final int lo;
+        private final int hi;
+        private final int rolls;
+
+        SimulationTask(Params params, SplittableGenerator random, int lo, int hi, int rolls) {
+            this.params = params;
+            this.random = random;
+            this.lo = lo;
+            this.hi = hi;
+            this.rolls = rolls;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (hi - lo > LEAF_TRIALS) {
+                int mid = (lo + hi) >>> 1;
+                // 拆分顺序固定：先为右半拆出新流，左半继续使用当前流
+                SimulationTask right = new SimulationTask(params, random.split(), mid, hi, rolls);
+                SimulationTask left = new SimulationTask(params, random, lo, mid, rolls);
+                right.fork();
+                Tally tally = left.compute();
+                tally.add(right.join());
+                return tally;
+            }
+            Tally tally = new Tally();
+            for (int t = lo; t < hi; t++) {
+                RandomDamageManager manager = params.newManager(random.split());
+                int gap = 0;
+                for (int r = 0; r < rolls; r++) {
+                    if (manager.isStrikeUncounted()) {
+                        tally.strikes++;
+                        tally.gaps[Math.min(gap, MAX_GAP - 1)]++;
+                        gap = 0;
+                    } else {
+                        gap++;
+                    }
+                }
+            }
+            return tally;
+        }
+    }
+}
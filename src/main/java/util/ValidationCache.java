@@ -0,0 +1,202 @@
+package util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * 持久化的校验结果缓存：.cache/validation.bin。
+ * 以 (策略标识, 文件绝对路径) 为键，记录 size / mtime / CRC32C 与 FilterResult：
+ * size 与 mtime 都没变直接命中；只有 mtime 变了再读一次内容比对哈希；
+ * 否则重新校验；记录的哈希与被校验的是同一份内容（校验期间文件被改动则不缓存）。
+ * 变更由 {@link #flushLater()} 合并后延迟落盘，进程退出前再写一次；
+ * 也可调用 {@link #flush()} 立即写（临时文件 + ATOMIC_MOVE）。
+ */
+public final class ValidationCache {
+
+    private static final int MAGIC = 0x53455643; // "SEVC"
+    /** 校验规则变化时递增，使旧缓存整体失效 */
+    private static final int VERSION = 2;
+    /** 延迟落盘的合并窗口 */
+    private static final long FLUSH_DELAY_MILLIS = 500;
+
+    private record Entry(long size, long mtime, int crc, boolean selectable, List<String> reasons) {
+    }
+
+    private static final class Holder {
+        static final ValidationCache INSTANCE = new ValidationCache(ConfigFinder.CACHE_DIR.resolve("validation.bin"));
+    }
+
+    public static @NotNull ValidationCache shared() {
+        return Holder.INSTANCE;
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile boolean dirty;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private ValidationCache(Path file) {
+        this.file = file;
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "validation-cache-flush"));
+    }
+
+    /**
+     * 返回缓存的结果；文件有变化时调用 validator 重新校验并记录
+     */
+    @NotNull FilterResult check(@NotNull String strategyKey,
+                                @NotNull Path path,
+                                @NotNull Function<Path, FilterResult> validator) {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return validator.apply(path);   // 不存在等情况不缓存
+        }
+        String key = strategyKey + '\0' + path.toAbsolutePath().normalize();
+        long size = attrs.size();
+        long mtime = attrs.lastModifiedTime().toMillis();
+
+        Entry e = entries.get(key);
+        if (e != null && e.size == size) {
+            if (e.mtime == mtime) return toResult(path, e);
+            Integer crc = crc(path);
+            if (crc != null && crc == e.crc) {
+                // 只是被 touch 过，内容未变
+                entries.put(key, new Entry(size, mtime, crc, e.selectable, e.reasons));
+                dirty = true;
+                return toResult(path, e);
+            }
+        }
+
+        FilterResult result = validator.apply(path);
+        Integer crc = crc(path);
+        // 校验前后 size/mtime 不一致说明期间被改动，哈希未必对应被校验的内容，不缓存
+        if (crc != null && unchanged(path, size, mtime)) {
+            entries.put(key, new Entry(size, mtime, crc, result.selectable(), List.copyOf(result.reasons())));
+            dirty = true;
+        }
+        return result;
+    }
+
+    /** 有变更时安排一次延迟写回，窗口内的多次调用合并为一次 */
+    public void flushLater() {
+        if (!dirty || !flushScheduled.compareAndSet(false, true)) return;
+        CompletableFuture.delayedExecutor(FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS).execute(() -> {
+            flushScheduled.set(false);
+            flush();
+        });
+    }
+
+    /** 有变更时立即整体写回 */
+    public void flush() {
+        if (!dirty) return;
+        synchronized (writeLock) {
+            if (!dirty) return;
+            dirty = false;
+            try {
+                ConfigFinder.ensureCacheDir();
+                Path tmp = Files.createTempFile(file.getParent(), "validation", ".tmp");
+                try {
+                    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                        Map<String, Entry> snapshot = Map.copyOf(entries);
+                        out.writeInt(MAGIC);
+                        out.writeInt(VERSION);
+                        out.writeInt(snapshot.size());
+                        for (Map.Entry<String, Entry> me : snapshot.entrySet()) {
+                            Entry e = me.getValue();
+                            out.writeUTF(me.getKey());
+                            out.writeLong(e.size);
+                            out.writeLong(e.mtime);
+                            out.writeInt(e.crc);
+                            out.writeBoolean(e.selectable);
+                            out.writeShort(e.reasons.size());
+                            for (String r : e.reasons) {
+                                out.writeUTF(r);
+                            }
+                        }
+                    }
+                    Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+            } catch (IOException ignore) {
+                // 缓存只是加速手段，写失败下次启动重新校验即可
+            }
+        }
+    }
+
+    /* ---------------- 内部 ---------------- */
+
+    private void load() {
+        if (!Files.isRegularFile(file)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return;
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                String key = in.readUTF();
+                long size = in.readLong();
+                long mtime = in.readLong();
+                int crc = in.readInt();
+                boolean selectable = in.readBoolean();
+                int reasonCount = in.readUnsignedShort();
+                List<String> reasons = new ArrayList<>(reasonCount);
+                for (int j = 0; j < reasonCount; j++) {
+                    reasons.add(in.readUTF());
+                }
+                entries.put(key, new Entry(size, mtime, crc, selectable, List.copyOf(reasons)));
+            }
+        } catch (IOException | RuntimeException e) {
+            // 缓存损坏时丢弃，全部重新校验
+            entries.clear();
+        }
+    }
+
+    private static FilterResult toResult(Path path, Entry e) {
+        return e.selectable ? FilterResult.ok(path) : FilterResult.reject(path, e.reasons);
+    }
+
+    private static boolean unchanged(Path path, long size, long mtime) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return attrs.size() == size && attrs.lastModifiedTime().toMillis() == mtime;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static @Nullable Integer crc(Path path) {
+        CRC32C crc = new CRC32C();
+        byte[] buf = new byte[8192];
+        try (InputStream in = Files.newInputStream(path)) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                crc.update(buf, 0, n);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return (int) crc.getValue();
+    }
+}
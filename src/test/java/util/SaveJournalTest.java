@@ -0,0 +1,249 @@
+package util;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 写入 / force 中途失败后，失败的批次不得在重放时出现，之后确认的批次不得丢失
+ */
+public class SaveJournalTest extends TestCase {
+
+    private Path dir;
+    private FaultyChannel current;
+
+    @Override
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("save-journal-test");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    public void testTornWriteIsDiscardedBeforeReplay() throws IOException {
+        try (SaveJournal journal = open()) {
+            journal.save("a", bytes("first")).join();
+            current.failWriteAfter = 5;   // 写出半条记录后失败
+            assertFailed(journal.save("b", bytes("lost")));
+            journal.save("c", bytes("after")).join();
+        }
+        assertReplayed();
+    }
+
+    public void testFailedForceIsNotReplayed() throws IOException {
+        try (SaveJournal journal = open()) {
+            journal.save("a", bytes("first")).join();
+            current.failForce = true;     // 完整写出但 force 失败
+            assertFailed(journal.save("b", bytes("lost")));
+            journal.save("c", bytes("after")).join();
+        }
+        assertReplayed();
+    }
+
+    public void testFailedTruncateRollsToNewSegment() throws IOException {
+        try (SaveJournal journal = open()) {
+            journal.save("a", bytes("first")).join();
+            current.failWriteAfter = 5;
+            current.failTruncate = true;  // 截不回去，只能换段
+            assertFailed(journal.save("b", bytes("lost")));
+            journal.save("c", bytes("after")).join();
+        }
+        assertReplayed();
+    }
+
+    /** 与 close 竞争的写入要么落盘、要么以 IllegalStateException 失败，不会永远挂起 */
+    public void testSubmitRacingCloseAlwaysCompletes() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            SaveJournal journal = open();
+            List<CompletableFuture<Void>> futures = new CopyOnWriteArrayList<>();
+            CountDownLatch started = new CountDownLatch(1);
+            Thread submitter = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 200; i++) {
+                    futures.add(journal.save("k" + i, bytes("v")));
+                }
+            });
+            submitter.start();
+            started.await();
+            journal.close();
+            submitter.join();
+            for (CompletableFuture<Void> f : futures) {
+                try {
+                    f.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IllegalStateException);
+                }
+            }
+        }
+    }
+
+    private SaveJournal open() throws IOException {
+        return new SaveJournal(dir, file -> current = new FaultyChannel(FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)));
+    }
+
+    private void assertReplayed() throws IOException {
+        try (SaveJournal reopened = SaveJournal.open(dir)) {
+            assertEquals("first", string(reopened.get("a")));
+            assertNull(reopened.get("b"));
+            assertEquals("after", string(reopened.get("c")));
+        }
+    }
+
+    private static void assertFailed(CompletableFuture<Void> future) {
+        try {
+            future.join();
+            fail("write should have failed");
+        } catch (CompletionException expected) {
+            assertTrue(expected.getCause() instanceof IOException);
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] b) {
+        return b == null ? null : new String(b, StandardCharsets.UTF_8);
+    }
+
+    /** 转发到真实文件，按开关注入失败（每个开关只生效一次） */
+    private static final class FaultyChannel extends FileChannel {
+        private final FileChannel delegate;
+        int failWriteAfter = -1;
+        boolean failForce;
+        boolean failTruncate;
+
+        FaultyChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWriteAfter >= 0) {
+                ByteBuffer part = src.duplicate();
+                part.limit(part.position() + Math.min(failWriteAfter, part.remaining()));
+                int written = delegate.write(part);
+                src.position(src.position() + written);
+                failWriteAfter = -1;
+                throw new IOException("injected write failure");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                failForce = false;
+                throw new IOException("injected force failure");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncate) {
+                failTruncate = false;
+                throw new IOException("injected truncate failure");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}